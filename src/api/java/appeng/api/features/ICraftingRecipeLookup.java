@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 AlgorithmX2
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package appeng.api.features;
+
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.world.World;
+
+
+/**
+ * Cached lookup of vanilla crafting recipes, shared by the crafting terminal, pattern encoding and autocrafting.
+ *
+ * Results are the same as scanning the crafting manager, the first registered recipe which matches wins.
+ */
+public interface ICraftingRecipeLookup
+{
+
+	/**
+	 * @param inv crafting grid
+	 * @param world world the grid is in
+	 *
+	 * @return the first matching recipe, or null if there is none
+	 */
+	IRecipe findMatchingRecipe( InventoryCrafting inv, World world );
+
+	/**
+	 * @param inv crafting grid
+	 * @param world world the grid is in
+	 *
+	 * @return the output of the first matching recipe, or null if there is none
+	 */
+	ItemStack findMatchingRecipeOutput( InventoryCrafting inv, World world );
+
+	/**
+	 * Drops every cached result, call this after changing recipes which are already in the recipe list. Adding,
+	 * removing or replacing entries of the list is detected without it.
+	 */
+	void invalidate();
+}
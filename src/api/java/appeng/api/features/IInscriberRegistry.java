@@ -6,6 +6,7 @@ import java.util.Collection;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import net.minecraft.item.ItemStack;
 
@@ -56,6 +57,25 @@ public interface IInscriberRegistry
 	@Nonnull
 	IInscriberRecipeBuilder builder();
 
+	/**
+	 * Finds the recipe an inscriber runs with the given items, the presses are accepted either way round.
+	 *
+	 * @param top item in the top slot
+	 * @param input item in the middle slot
+	 * @param bottom item in the bottom slot
+	 *
+	 * @return matching recipe, or null if there is none
+	 */
+	@Nullable
+	IInscriberRecipe findRecipe( @Nullable ItemStack top, @Nullable ItemStack input, @Nullable ItemStack bottom );
+
+	/**
+	 * @param is item to check
+	 *
+	 * @return true if a registered recipe uses the item in the top or bottom slot
+	 */
+	boolean isOptional( @Nullable ItemStack is );
+
 	/**
 	 * add a new recipe the easy way, duplicates will not be added.
 	 * Added recipes will be automatically added to the optionals and inputs.
@@ -105,6 +105,11 @@ public interface IRegistryContainer
 	 */
 	IRecipeHandlerRegistry recipes();
 
+	/**
+	 * get access to the cached vanilla crafting recipe lookup.
+	 */
+	ICraftingRecipeLookup craftingRecipes();
+
 	/**
 	 * get access to the world-gen api.
 	 */
@@ -0,0 +1,46 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2013 AlgorithmX2
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package appeng.api.networking;
+
+
+/**
+ * Optional extension of {@link IGridCache} for caches which do expensive work for every added or removed node.
+ *
+ * When grids merge or split, AE moves whole groups of nodes at once and brackets them with these calls. In between,
+ * the cache may defer the work its {@link IGridCache#addNode(IGridNode, IGridHost)} and
+ * {@link IGridCache#removeNode(IGridNode, IGridHost)} would trigger and do it once at the end instead.
+ */
+public interface IGridCacheBulkUpdate extends IGridCache
+{
+
+	/**
+	 * Called before a group of nodes is added to or removed from the grid.
+	 */
+	void beginBulkUpdate();
+
+	/**
+	 * Called after the group was moved, do any deferred work here.
+	 */
+	void endBulkUpdate();
+}
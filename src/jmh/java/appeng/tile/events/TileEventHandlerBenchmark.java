@@ -0,0 +1,222 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.tile.events;
+
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.nbt.NBTTagCompound;
+
+import appeng.tile.AEBaseTile;
+import appeng.tile.TileEvent;
+
+
+/**
+ * Compares calling {@link TileEvent} handlers through {@link Method#invoke(Object, Object...)} against the compiled
+ * {@link AETileEventHandler}, for a chunk worth of tiles being saved or synced.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class TileEventHandlerBenchmark
+{
+
+	@Param( { "1000", "10000" } )
+	public int tiles;
+
+	@Param( { "reflective", "compiled" } )
+	public String implementation;
+
+	private BenchmarkTile[] tileArray;
+	private Method[] nbtMethods;
+	private Method[] streamMethods;
+	private AETileEventHandler[] nbtHandlers;
+	private AETileEventHandler[] streamHandlers;
+	private ByteBuf buffer;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		this.tileArray = new BenchmarkTile[this.tiles];
+		for( int i = 0; i < this.tiles; i++ )
+		{
+			this.tileArray[i] = new BenchmarkTile( i );
+		}
+
+		final List<Method> nbt = new ArrayList<Method>();
+		final List<Method> stream = new ArrayList<Method>();
+
+		for( final Method m : BenchmarkTile.class.getMethods() )
+		{
+			final TileEvent event = m.getAnnotation( TileEvent.class );
+			if( event != null && event.value() == TileEventType.WORLD_NBT_WRITE )
+			{
+				nbt.add( m );
+			}
+			else if( event != null && event.value() == TileEventType.NETWORK_WRITE )
+			{
+				stream.add( m );
+			}
+		}
+
+		this.nbtMethods = nbt.toArray( new Method[nbt.size()] );
+		this.streamMethods = stream.toArray( new Method[stream.size()] );
+		this.nbtHandlers = this.createHandlers( this.nbtMethods );
+		this.streamHandlers = this.createHandlers( this.streamMethods );
+
+		this.buffer = Unpooled.buffer( 64 );
+	}
+
+	@Benchmark
+	public int writeToNBT() throws Exception
+	{
+		int keys = 0;
+
+		for( final BenchmarkTile tile : this.tileArray )
+		{
+			final NBTTagCompound data = new NBTTagCompound();
+
+			if( "compiled".equals( this.implementation ) )
+			{
+				for( final AETileEventHandler h : this.nbtHandlers )
+				{
+					h.writeToNBT( tile, data );
+				}
+			}
+			else
+			{
+				for( final Method m : this.nbtMethods )
+				{
+					m.invoke( tile, data );
+				}
+			}
+
+			keys += data.getKeySet().size();
+		}
+
+		return keys;
+	}
+
+	@Benchmark
+	public int writeToStream() throws Exception
+	{
+		int bytes = 0;
+
+		for( final BenchmarkTile tile : this.tileArray )
+		{
+			this.buffer.clear();
+
+			if( "compiled".equals( this.implementation ) )
+			{
+				for( final AETileEventHandler h : this.streamHandlers )
+				{
+					h.writeToStream( tile, this.buffer );
+				}
+			}
+			else
+			{
+				for( final Method m : this.streamMethods )
+				{
+					m.invoke( tile, this.buffer );
+				}
+			}
+
+			bytes += this.buffer.readableBytes();
+		}
+
+		return bytes;
+	}
+
+	private AETileEventHandler[] createHandlers( final Method[] methods )
+	{
+		final AETileEventHandler[] handlers = new AETileEventHandler[methods.length];
+
+		for( int i = 0; i < methods.length; i++ )
+		{
+			handlers[i] = new AETileEventHandler( methods[i] );
+		}
+
+		return handlers;
+	}
+
+	/**
+	 * Shaped like a typical AE tile, a few handlers which each write a couple of values.
+	 */
+	public static class BenchmarkTile extends AEBaseTile
+	{
+
+		private final int power;
+		private final int progress;
+		private final boolean active;
+
+		public BenchmarkTile( final int seed )
+		{
+			this.power = seed * 31;
+			this.progress = seed % 100;
+			this.active = ( seed & 1 ) == 0;
+		}
+
+		@TileEvent( TileEventType.WORLD_NBT_WRITE )
+		public void writeToNBT_Power( final NBTTagCompound data )
+		{
+			data.setInteger( "power", this.power );
+		}
+
+		@TileEvent( TileEventType.WORLD_NBT_WRITE )
+		public void writeToNBT_Progress( final NBTTagCompound data )
+		{
+			data.setInteger( "progress", this.progress );
+			data.setBoolean( "active", this.active );
+		}
+
+		@TileEvent( TileEventType.NETWORK_WRITE )
+		public void writeToStream_Power( final ByteBuf data )
+		{
+			data.writeInt( this.power );
+		}
+
+		@TileEvent( TileEventType.NETWORK_WRITE )
+		public void writeToStream_Progress( final ByteBuf data )
+		{
+			data.writeByte( this.progress );
+			data.writeBoolean( this.active );
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+
+
+/**
+ * Compares {@link ItemList} against {@link HashedItemList} for the operations a network storage list sees the most.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 1 )
+public class ItemListBenchmark
+{
+
+	@Param( { "1000", "10000", "100000" } )
+	public int types;
+
+	@Param( { "skiplist", "hashed" } )
+	public String implementation;
+
+	private IAEItemStack[] stacks;
+	private IAEItemStack[] lookups;
+	private IItemList<IAEItemStack> filled;
+
+	@Setup
+	public void setup()
+	{
+		Bootstrap.register();
+
+		final List<Item> items = new ArrayList<Item>();
+		for( final Item item : Item.REGISTRY )
+		{
+			if( !item.isDamageable() )
+			{
+				items.add( item );
+			}
+		}
+
+		this.stacks = new IAEItemStack[this.types];
+		this.lookups = new IAEItemStack[this.types];
+
+		for( int i = 0; i < this.types; i++ )
+		{
+			final Item item = items.get( i % items.size() );
+			final int damage = i / items.size();
+
+			this.stacks[i] = AEItemStack.create( new ItemStack( item, 1, damage ) );
+			// separate instances, so lookups cannot short circuit on identity.
+			this.lookups[i] = AEItemStack.create( new ItemStack( item, 1, damage ) );
+		}
+
+		this.filled = this.createList();
+		for( final IAEItemStack stack : this.stacks )
+		{
+			this.filled.add( stack );
+		}
+	}
+
+	@Benchmark
+	public IItemList<IAEItemStack> add()
+	{
+		final IItemList<IAEItemStack> list = this.createList();
+
+		for( final IAEItemStack stack : this.stacks )
+		{
+			list.add( stack );
+		}
+
+		return list;
+	}
+
+	@Benchmark
+	public void findPrecise( final Blackhole bh )
+	{
+		for( final IAEItemStack stack : this.lookups )
+		{
+			bh.consume( this.filled.findPrecise( stack ) );
+		}
+	}
+
+	@Benchmark
+	public long iterate()
+	{
+		long total = 0;
+
+		for( final IAEItemStack stack : this.filled )
+		{
+			total += stack.getStackSize();
+		}
+
+		return total;
+	}
+
+	private IItemList<IAEItemStack> createList()
+	{
+		if( "hashed".equals( this.implementation ) )
+		{
+			return new HashedItemList();
+		}
+
+		return new ItemList();
+	}
+}
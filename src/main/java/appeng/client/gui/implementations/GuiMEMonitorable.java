@@ -57,6 +57,7 @@ import appeng.core.AELog;
 import appeng.core.localization.GuiText;
 import appeng.core.sync.GuiBridge;
 import appeng.core.sync.network.NetworkHandler;
+import appeng.core.sync.packets.PacketMEInventoryUpdate;
 import appeng.core.sync.packets.PacketSwitchGuis;
 import appeng.core.sync.packets.PacketValueConfig;
 import appeng.helpers.WirelessTerminalGuiObject;
@@ -148,8 +149,13 @@ public class GuiMEMonitorable extends AEBaseMEGui implements ISortSource, IConfi
 		}
 	}
 
-	public void postUpdate( final List<IAEItemStack> list )
+	public void postUpdate( final List<IAEItemStack> list, final byte ref )
 	{
+		if( ref == PacketMEInventoryUpdate.FULL_LIST )
+		{
+			this.repo.clear();
+		}
+
 		for( final IAEItemStack is : list )
 		{
 			this.repo.postUpdate( is );
@@ -159,6 +165,12 @@ public class GuiMEMonitorable extends AEBaseMEGui implements ISortSource, IConfi
 		this.setScrollBar();
 	}
 
+	public void postPage( final int viewSize, final int start, final int length, final boolean full, final int[] rows, final List<IAEItemStack> stacks )
+	{
+		this.repo.postPage( viewSize, start, length, full, rows, stacks );
+		this.setScrollBar();
+	}
+
 	private void setScrollBar()
 	{
 		this.getScrollBar().setTop( 18 ).setLeft( 175 ).setHeight( this.rows * 18 - 2 );
@@ -486,6 +498,14 @@ public class GuiMEMonitorable extends AEBaseMEGui implements ISortSource, IConfi
 	public void updateScreen()
 	{
 		this.repo.setPower( this.monitorableContainer.isPowered() );
+
+		if( this.repo.setServerView( this.monitorableContainer.isServerView() ) )
+		{
+			this.repo.updateView();
+			this.setScrollBar();
+		}
+
+		this.repo.requestWindow( this.rows * this.perRow );
 		super.updateScreen();
 	}
 
@@ -19,10 +19,13 @@
 package appeng.client.me;
 
 
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
@@ -33,7 +36,7 @@ import net.minecraftforge.fml.relauncher.ReflectionHelper;
 import appeng.api.AEApi;
 import appeng.api.config.SearchBoxMode;
 import appeng.api.config.Settings;
-import appeng.api.config.SortOrder;
+import appeng.api.config.SortDir;
 import appeng.api.config.ViewItems;
 import appeng.api.config.YesNo;
 import appeng.api.storage.data.IAEItemStack;
@@ -41,15 +44,20 @@ import appeng.api.storage.data.IItemList;
 import appeng.client.gui.widgets.IScrollSource;
 import appeng.client.gui.widgets.ISortSource;
 import appeng.core.AEConfig;
+import appeng.core.AELog;
+import appeng.core.sync.network.NetworkHandler;
+import appeng.core.sync.packets.PacketValueConfig;
 import appeng.items.storage.ItemViewCell;
 import appeng.util.ItemSorters;
-import appeng.util.Platform;
+import appeng.util.item.AEItemStack;
 import appeng.util.prioitylist.IPartitionList;
 
 
 public class ItemRepo
 {
 
+	private static final String REGEX_CHARACTERS = "\\^$.|?*+()[]{}";
+
 	private final IItemList<IAEItemStack> list = AEApi.instance().storage().createItemList();
 	private final ArrayList<IAEItemStack> view = new ArrayList<IAEItemStack>();
 	private final ArrayList<ItemStack> dsp = new ArrayList<ItemStack>();
@@ -64,6 +72,24 @@ public class ItemRepo
 	private String NEIWord = null;
 	private boolean hasPower;
 
+	// what the view was built with, updates and narrower searches are applied to it as long as these stay the same.
+	private boolean viewValid;
+	private Enum viewMode;
+	private Enum viewSortBy;
+	private Enum viewSortDir;
+	private boolean searchMod;
+	private boolean searchToolTips;
+	private Pattern search;
+	private Comparator<IAEItemStack> sorter;
+
+	// the server sorts and filters, only a page of the view is kept around.
+	private boolean serverView;
+	private int serverViewSize;
+	private int pageStart;
+	private String sentSearch;
+	private int sentOffset = -1;
+	private int sentLength = -1;
+
 	public ItemRepo( final IScrollSource src, final ISortSource sortSrc )
 	{
 		this.src = src;
@@ -72,9 +98,9 @@ public class ItemRepo
 
 	public IAEItemStack getReferenceItem( int idx )
 	{
-		idx += this.src.getCurrentScroll() * this.rowSize;
+		idx += this.src.getCurrentScroll() * this.rowSize - this.pageStart;
 
-		if( idx >= this.view.size() )
+		if( idx < 0 || idx >= this.view.size() )
 		{
 			return null;
 		}
@@ -83,9 +109,9 @@ public class ItemRepo
 
 	public ItemStack getItem( int idx )
 	{
-		idx += this.src.getCurrentScroll() * this.rowSize;
+		idx += this.src.getCurrentScroll() * this.rowSize - this.pageStart;
 
-		if( idx >= this.dsp.size() )
+		if( idx < 0 || idx >= this.dsp.size() )
 		{
 			return null;
 		}
@@ -99,32 +125,56 @@ public class ItemRepo
 
 	public void postUpdate( final IAEItemStack is )
 	{
+		if( this.serverView )
+		{
+			return;
+		}
+
 		final IAEItemStack st = this.list.findPrecise( is );
 
 		if( st != null )
 		{
+			// take it out while its sort key is still the one it was sorted in with.
+			final int idx = this.viewValid ? this.indexOf( st ) : -1;
+			if( idx >= 0 )
+			{
+				this.view.remove( idx );
+				this.dsp.remove( idx );
+			}
+
 			st.reset();
 			st.add( is );
+
+			if( this.viewValid )
+			{
+				this.insert( st );
+			}
 		}
 		else
 		{
 			this.list.add( is );
+
+			if( this.viewValid )
+			{
+				this.insert( this.list.findPrecise( is ) );
+			}
 		}
 	}
 
 	public void setViewCell( final ItemStack[] list )
 	{
 		this.myPartitionList = ItemViewCell.createFilter( list );
+		this.viewValid = false;
 		this.updateView();
 	}
 
 	public void updateView()
 	{
-		this.view.clear();
-		this.dsp.clear();
-
-		this.view.ensureCapacity( this.list.size() );
-		this.dsp.ensureCapacity( this.list.size() );
+		if( this.serverView )
+		{
+			this.sendSearch();
+			return;
+		}
 
 		final Enum viewMode = this.sortSrc.getSortDisplay();
 		final Enum searchMode = AEConfig.instance.settings.getSetting( Settings.SEARCH_MODE );
@@ -133,116 +183,205 @@ public class ItemRepo
 			this.updateNEI( this.searchString );
 		}
 
-		this.innerSearch = this.searchString;
 		final boolean terminalSearchToolTips = AEConfig.instance.settings.getSetting( Settings.SEARCH_TOOLTIPS ) != YesNo.NO;
 		// boolean terminalSearchMods = Configuration.INSTANCE.settings.getSetting( Settings.SEARCH_MODS ) != YesNo.NO;
 
+		String innerSearch = this.searchString;
 		boolean searchMod = false;
-		if( this.innerSearch.startsWith( "@" ) )
+		if( innerSearch.startsWith( "@" ) )
 		{
 			searchMod = true;
-			this.innerSearch = this.innerSearch.substring( 1 );
+			innerSearch = innerSearch.substring( 1 );
+		}
+
+		final Enum sortBy = this.sortSrc.getSortBy();
+		final Enum sortDir = this.sortSrc.getSortDir();
+
+		final boolean sameView = this.viewValid && viewMode == this.viewMode && sortBy == this.viewSortBy && sortDir == this.viewSortDir && searchMod == this.searchMod && terminalSearchToolTips == this.searchToolTips;
+
+		if( sameView && innerSearch.equals( this.innerSearch ) )
+		{
+			// updates were already sorted in.
+			return;
 		}
 
 		Pattern m = null;
 		try
 		{
-			m = Pattern.compile( this.innerSearch.toLowerCase(), Pattern.CASE_INSENSITIVE );
+			m = Pattern.compile( innerSearch.toLowerCase(), Pattern.CASE_INSENSITIVE );
 		}
 		catch( final Throwable ignore )
 		{
 			try
 			{
-				m = Pattern.compile( Pattern.quote( this.innerSearch.toLowerCase() ), Pattern.CASE_INSENSITIVE );
+				m = Pattern.compile( Pattern.quote( innerSearch.toLowerCase() ), Pattern.CASE_INSENSITIVE );
 			}
 			catch( final Throwable __ )
 			{
+				this.view.clear();
+				this.dsp.clear();
+				this.viewValid = false;
 				return;
 			}
 		}
 
-		boolean notDone = false;
-		for( IAEItemStack is : this.list )
+		final boolean narrowed = sameView && isLiteral( innerSearch ) && isLiteral( this.innerSearch ) && innerSearch.contains( this.innerSearch );
+
+		this.innerSearch = innerSearch;
+		this.searchMod = searchMod;
+		this.searchToolTips = terminalSearchToolTips;
+		this.search = m;
+
+		if( narrowed )
 		{
-			if( this.myPartitionList != null )
+			// a longer literal only matches a subset of what the shorter one did, which is still sorted.
+			int kept = 0;
+			for( int x = 0; x < this.view.size(); x++ )
 			{
-				if( !this.myPartitionList.isListed( is ) )
+				final IAEItemStack is = this.view.get( x );
+				if( this.matchesSearch( is ) )
 				{
-					continue;
+					this.view.set( kept, is );
+					this.dsp.set( kept, this.dsp.get( x ) );
+					kept++;
 				}
 			}
 
-			if( viewMode == ViewItems.CRAFTABLE && !is.isCraftable() )
-			{
-				continue;
-			}
+			this.view.subList( kept, this.view.size() ).clear();
+			this.dsp.subList( kept, this.dsp.size() ).clear();
+			return;
+		}
 
-			if( viewMode == ViewItems.CRAFTABLE )
-			{
-				is = is.copy();
-				is.setStackSize( 0 );
-			}
+		this.viewMode = viewMode;
+		this.viewSortBy = sortBy;
+		this.viewSortDir = sortDir;
 
-			if( viewMode == ViewItems.STORED && is.getStackSize() == 0 )
-			{
-				continue;
-			}
+		ItemSorters.init();
+		this.sorter = ItemSorters.getSorter( sortBy, (SortDir) sortDir );
 
-			final String dspName = searchMod ? Platform.getModId( is ) : Platform.getItemDisplayName( is );
-			notDone = true;
+		this.view.clear();
+		this.dsp.clear();
 
-			if( m.matcher( dspName.toLowerCase() ).find() )
+		this.view.ensureCapacity( this.list.size() );
+		this.dsp.ensureCapacity( this.list.size() );
+
+		for( final IAEItemStack is : this.list )
+		{
+			if( this.isListed( is ) )
 			{
-				this.view.add( is );
-				notDone = false;
+				this.view.add( this.createEntry( is ) );
 			}
+		}
+
+		Collections.sort( this.view, this.sorter );
+
+		for( final IAEItemStack is : this.view )
+		{
+			this.dsp.add( is.getItemStack() );
+		}
+
+		this.viewValid = true;
+	}
 
-			if( terminalSearchToolTips && notDone )
+	private boolean isListed( final IAEItemStack is )
+	{
+		if( this.myPartitionList != null )
+		{
+			if( !this.myPartitionList.isListed( is ) )
 			{
-				for( final Object lp : Platform.getTooltip( is ) )
-				{
-					if( lp instanceof String && m.matcher( (CharSequence) lp ).find() )
-					{
-						this.view.add( is );
-						notDone = false;
-						break;
-					}
-				}
+				return false;
 			}
+		}
 
-			/*
-			 * if ( terminalSearchMods && notDone ) { if ( m.matcher( Platform.getMod( is.getItemStack() ) ).find() ) {
-			 * view.add( is ); notDone = false; } }
-			 */
+		if( this.viewMode == ViewItems.CRAFTABLE && !is.isCraftable() )
+		{
+			return false;
 		}
 
-		final Enum SortBy = this.sortSrc.getSortBy();
-		final Enum SortDir = this.sortSrc.getSortDir();
+		if( this.viewMode == ViewItems.STORED && is.getStackSize() == 0 )
+		{
+			return false;
+		}
 
-		ItemSorters.setDirection( (appeng.api.config.SortDir) SortDir );
-		ItemSorters.init();
+		return this.matchesSearch( is );
+	}
 
-		if( SortBy == SortOrder.MOD )
+	private boolean matchesSearch( final IAEItemStack is )
+	{
+		return ( (AEItemStack) is ).getSearchKey().matches( this.search, this.searchMod, this.searchToolTips );
+	}
+
+	private IAEItemStack createEntry( final IAEItemStack is )
+	{
+		if( this.viewMode == ViewItems.CRAFTABLE )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_MOD );
+			final IAEItemStack entry = is.copy();
+			entry.setStackSize( 0 );
+			return entry;
 		}
-		else if( SortBy == SortOrder.AMOUNT )
+
+		return is;
+	}
+
+	/**
+	 * @return the position of the stack in the view, or -1 if it is not listed.
+	 */
+	private int indexOf( final IAEItemStack is )
+	{
+		final IAEItemStack probe = this.createEntry( is );
+		final int found = Collections.binarySearch( this.view, probe, this.sorter );
+
+		if( found < 0 )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_SIZE );
+			return -1;
 		}
-		else if( SortBy == SortOrder.INVTWEAKS )
+
+		// equal sort keys do not make equal items, look through the whole run.
+		for( int x = found; x >= 0 && this.sorter.compare( this.view.get( x ), probe ) == 0; x-- )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_INV_TWEAKS );
+			if( this.view.get( x ).equals( is ) )
+			{
+				return x;
+			}
 		}
-		else
+
+		for( int x = found + 1; x < this.view.size() && this.sorter.compare( this.view.get( x ), probe ) == 0; x++ )
 		{
-			Collections.sort( this.view, ItemSorters.CONFIG_BASED_SORT_BY_NAME );
+			if( this.view.get( x ).equals( is ) )
+			{
+				return x;
+			}
 		}
 
-		for( final IAEItemStack is : this.view )
+		return -1;
+	}
+
+	private void insert( final IAEItemStack is )
+	{
+		if( !is.isMeaningful() || !this.isListed( is ) )
 		{
-			this.dsp.add( is.getItemStack() );
+			return;
+		}
+
+		final IAEItemStack entry = this.createEntry( is );
+		final int found = Collections.binarySearch( this.view, entry, this.sorter );
+		final int idx = found < 0 ? -( found + 1 ) : found;
+
+		this.view.add( idx, entry );
+		this.dsp.add( idx, entry.getItemStack() );
+	}
+
+	private static boolean isLiteral( final String search )
+	{
+		for( int x = 0; x < search.length(); x++ )
+		{
+			if( REGEX_CHARACTERS.indexOf( search.charAt( x ) ) >= 0 )
+			{
+				return false;
+			}
 		}
+
+		return true;
 	}
 
 	private void updateNEI( final String filter )
@@ -269,14 +408,117 @@ public class ItemRepo
 		}
 	}
 
+	/**
+	 * Switches between sorting and filtering locally and showing the pages of the server's view.
+	 *
+	 * @return true if the mode changed.
+	 */
+	public boolean setServerView( final boolean serverView )
+	{
+		if( this.serverView == serverView )
+		{
+			return false;
+		}
+
+		this.serverView = serverView;
+		this.serverViewSize = 0;
+		this.pageStart = 0;
+		this.sentSearch = null;
+		this.sentOffset = -1;
+		this.sentLength = -1;
+		this.view.clear();
+		this.dsp.clear();
+		return true;
+	}
+
+	/**
+	 * Applies the rows of the kept page the server sent, all of them if the page is sent in full.
+	 */
+	public void postPage( final int viewSize, final int start, final int length, final boolean full, final int[] rows, final List<IAEItemStack> stacks )
+	{
+		this.serverViewSize = viewSize;
+		this.pageStart = start;
+
+		if( full )
+		{
+			this.view.clear();
+			this.dsp.clear();
+		}
+		else if( this.view.size() > length )
+		{
+			this.view.subList( length, this.view.size() ).clear();
+			this.dsp.subList( length, this.dsp.size() ).clear();
+		}
+
+		// rows past the end of the page only ever follow each other.
+		for( int x = 0; x < rows.length; x++ )
+		{
+			final IAEItemStack is = stacks.get( x );
+			if( is == null )
+			{
+				continue;
+			}
+
+			if( rows[x] < this.view.size() )
+			{
+				this.view.set( rows[x], is );
+				this.dsp.set( rows[x], is.getItemStack() );
+			}
+			else
+			{
+				this.view.add( is );
+				this.dsp.add( is.getItemStack() );
+			}
+		}
+	}
+
+	/**
+	 * Tells the server which part of its view is visible, once it moved.
+	 */
+	public void requestWindow( final int length )
+	{
+		final int offset = this.src.getCurrentScroll() * this.rowSize;
+
+		if( !this.serverView || ( offset == this.sentOffset && length == this.sentLength ) )
+		{
+			return;
+		}
+
+		this.sentOffset = offset;
+		this.sentLength = length;
+		this.sendValue( "Terminal.View.Window", offset + "," + length );
+	}
+
+	private void sendSearch()
+	{
+		if( !this.searchString.equals( this.sentSearch ) )
+		{
+			this.sentSearch = this.searchString;
+			this.sendValue( "Terminal.View.Search", this.searchString );
+		}
+	}
+
+	private void sendValue( final String name, final String value )
+	{
+		try
+		{
+			NetworkHandler.instance.sendToServer( new PacketValueConfig( name, value ) );
+		}
+		catch( final IOException e )
+		{
+			AELog.debug( e );
+		}
+	}
+
 	public int size()
 	{
-		return this.view.size();
+		return this.serverView ? this.serverViewSize : this.view.size();
 	}
 
 	public void clear()
 	{
 		this.list.resetStatus();
+		this.viewValid = false;
 	}
 
 	public boolean hasPower()
@@ -113,12 +113,9 @@ public class ContainerInscriber extends ContainerUpgradeable implements IProgres
 
 		if( s == this.middle )
 		{
-			for( final ItemStack optional : AEApi.instance().registries().inscriber().getOptionals() )
+			if( AEApi.instance().registries().inscriber().isOptional( is ) )
 			{
-				if( Platform.isSameItemPrecise( optional, is ) )
-				{
-					return false;
-				}
+				return false;
 			}
 
 			boolean matches = false;
@@ -20,10 +20,14 @@ package appeng.container.implementations;
 
 
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.inventory.IInventory;
@@ -37,12 +41,16 @@ import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.security.IActionHost;
 import appeng.container.AEBaseContainer;
+import appeng.core.AEConfig;
+import appeng.core.features.AEFeature;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.PacketCompressedNBT;
 import appeng.helpers.DualityInterface;
 import appeng.helpers.IInterfaceHost;
+import appeng.helpers.IInterfaceTerminalListener;
 import appeng.helpers.InventoryAction;
 import appeng.items.misc.ItemEncodedPattern;
+import appeng.me.Grid;
 import appeng.parts.misc.PartInterface;
 import appeng.parts.reporting.PartInterfaceTerminal;
 import appeng.tile.inventory.AppEngInternalInventory;
@@ -61,12 +69,22 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 	 * this stuff is all server side..
 	 */
 
+	private static final int NAME_CHECK_INTERVAL = 20;
+
 	private static long autoBase = Long.MIN_VALUE;
 	private final Map<IInterfaceHost, InvTracker> diList = new HashMap<IInterfaceHost, InvTracker>();
 	private final Map<Long, InvTracker> byId = new HashMap<Long, InvTracker>();
 	private IGrid grid;
 	private NBTTagCompound data = new NBTTagCompound();
 
+	// event driven updates, the interfaces report pattern changes instead of being compared every tick.
+	private boolean eventDriven;
+	private final Set<InvTracker> changed = new HashSet<InvTracker>();
+	private boolean listStale = true;
+	private boolean wasActive;
+	private int membershipVersion;
+	private int nameCheckDelay = NAME_CHECK_INTERVAL;
+
 	public ContainerInterfaceTerminal( final InventoryPlayer ip, final PartInterfaceTerminal anchor )
 	{
 		super( ip, anchor );
@@ -74,6 +92,7 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 		if( Platform.isServer() )
 		{
 			this.grid = anchor.getActionableNode().getGrid();
+			this.eventDriven = this.grid instanceof Grid && AEConfig.instance.isFeatureEnabled( AEFeature.InterfaceTerminalEvents );
 		}
 
 		this.bindPlayerInventory( ip, 0, 222 - /* height of player inventory */82 );
@@ -94,6 +113,43 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 			return;
 		}
 
+		if( this.eventDriven )
+		{
+			this.detectChangesFromEvents();
+		}
+		else
+		{
+			this.detectChangesByPolling();
+		}
+
+		if( !this.data.hasNoTags() )
+		{
+			try
+			{
+				NetworkHandler.instance.sendTo( new PacketCompressedNBT( this.data ), (EntityPlayerMP) this.getPlayerInv().player );
+			}
+			catch( final IOException e )
+			{
+				// :P
+			}
+
+			this.data = new NBTTagCompound();
+		}
+	}
+
+	@Override
+	public void onContainerClosed( final EntityPlayer player )
+	{
+		super.onContainerClosed( player );
+
+		for( final InvTracker inv : this.diList.values() )
+		{
+			inv.unsubscribe();
+		}
+	}
+
+	private void detectChangesByPolling()
+	{
 		int total = 0;
 		boolean missing = false;
 
@@ -181,20 +237,74 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 				}
 			}
 		}
+	}
 
-		if( !this.data.hasNoTags() )
+	private void detectChangesFromEvents()
+	{
+		final boolean active = this.isHostActive();
+		final int version = ( (Grid) this.grid ).getMembershipVersion();
+
+		if( --this.nameCheckDelay <= 0 )
 		{
-			try
+			this.nameCheckDelay = NAME_CHECK_INTERVAL;
+
+			if( this.hasNameChanged() )
 			{
-				NetworkHandler.instance.sendTo( new PacketCompressedNBT( this.data ), (EntityPlayerMP) this.getPlayerInv().player );
+				this.listStale = true;
 			}
-			catch( final IOException e )
+		}
+
+		if( this.listStale || active != this.wasActive || version != this.membershipVersion )
+		{
+			this.listStale = false;
+			this.wasActive = active;
+			this.membershipVersion = version;
+			this.regenList( this.data );
+			return;
+		}
+
+		for( final InvTracker inv : this.changed )
+		{
+			for( int x = inv.changedSlots.nextSetBit( 0 ); x >= 0; x = inv.changedSlots.nextSetBit( x + 1 ) )
 			{
-				// :P
+				if( this.isDifferent( inv.server.getStackInSlot( x ), inv.client.getStackInSlot( x ) ) )
+				{
+					this.addItems( this.data, inv, x, 1 );
+				}
 			}
 
-			this.data = new NBTTagCompound();
+			inv.changedSlots.clear();
 		}
+
+		this.changed.clear();
+	}
+
+	private boolean isHostActive()
+	{
+		final IActionHost host = this.getActionHost();
+		if( host != null )
+		{
+			final IGridNode agn = host.getActionableNode();
+			return agn != null && agn.isActive();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Names follow the blocks the interfaces face, which send no events, so they are still polled, just rarely.
+	 */
+	private boolean hasNameChanged()
+	{
+		for( final InvTracker inv : this.diList.values() )
+		{
+			if( !inv.unlocalizedName.equals( inv.dual.getTermName() ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
 	}
 
 	@Override
@@ -314,6 +424,12 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 
 	private void regenList( final NBTTagCompound data )
 	{
+		for( final InvTracker inv : this.diList.values() )
+		{
+			inv.unsubscribe();
+		}
+
+		this.changed.clear();
 		this.byId.clear();
 		this.diList.clear();
 
@@ -351,6 +467,12 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 		{
 			final InvTracker inv = en.getValue();
 			this.byId.put( inv.which, inv );
+
+			if( this.eventDriven )
+			{
+				inv.subscribe();
+			}
+
 			this.addItems( data, inv, 0, inv.server.getSizeInventory() );
 		}
 	}
@@ -401,7 +523,7 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 		data.setTag( name, tag );
 	}
 
-	private static class InvTracker
+	private class InvTracker implements IInterfaceTerminalListener
 	{
 
 		private final long sortBy;
@@ -409,14 +531,57 @@ public final class ContainerInterfaceTerminal extends AEBaseContainer
 		private final String unlocalizedName;
 		private final IInventory client;
 		private final IInventory server;
+		private final DualityInterface dual;
+		private final BitSet changedSlots = new BitSet();
+		private boolean subscribed;
 
 		public InvTracker( final DualityInterface dual, final IInventory patterns, final String unlocalizedName )
 		{
+			this.dual = dual;
 			this.server = patterns;
 			this.client = new AppEngInternalInventory( null, this.server.getSizeInventory() );
 			this.unlocalizedName = unlocalizedName;
 			this.sortBy = dual.getSortValue();
 		}
+
+		private void subscribe()
+		{
+			this.subscribed = true;
+			this.dual.addTerminalListener( this );
+		}
+
+		private void unsubscribe()
+		{
+			this.subscribed = false;
+			this.dual.removeTerminalListener( this );
+		}
+
+		@Override
+		public boolean isValid()
+		{
+			return this.subscribed && ContainerInterfaceTerminal.this.getPlayerInv().player.openContainer == ContainerInterfaceTerminal.this;
+		}
+
+		@Override
+		public void onPatternChange( final int slot )
+		{
+			if( slot < 0 )
+			{
+				this.changedSlots.set( 0, this.server.getSizeInventory() );
+			}
+			else
+			{
+				this.changedSlots.set( slot );
+			}
+
+			ContainerInterfaceTerminal.this.changed.add( this );
+		}
+
+		@Override
+		public void onTerminalStateChange()
+		{
+			ContainerInterfaceTerminal.this.listStale = true;
+		}
 	}
 
 	private static class PatternInvSlot extends WrapperInvSlot
@@ -21,6 +21,9 @@ package appeng.container.implementations;
 
 import java.io.IOException;
 import java.nio.BufferOverflowException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import javax.annotation.Nonnull;
 
@@ -61,19 +64,30 @@ import appeng.api.util.IConfigurableObject;
 import appeng.container.AEBaseContainer;
 import appeng.container.guisync.GuiSync;
 import appeng.container.slot.SlotRestrictedInput;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
+import appeng.core.features.AEFeature;
 import appeng.core.sync.network.NetworkHandler;
 import appeng.core.sync.packets.PacketMEInventoryUpdate;
+import appeng.core.sync.packets.PacketMEViewPage;
 import appeng.core.sync.packets.PacketValueConfig;
+import appeng.items.storage.ItemViewCell;
+import appeng.me.cache.NetworkMonitor;
 import appeng.me.helpers.ChannelPowerSrc;
+import appeng.me.helpers.InventoryUpdatePublisher;
 import appeng.util.ConfigManager;
 import appeng.util.IConfigManagerHost;
 import appeng.util.Platform;
+import appeng.util.item.ItemHandleTable;
+import appeng.util.item.SortedItemView;
 
 
 public class ContainerMEMonitorable extends AEBaseContainer implements IConfigManagerHost, IConfigurableObject, IMEMonitorHandlerReceiver<IAEItemStack>
 {
 
+	private static final int MAX_WINDOW_LENGTH = 512;
+	private static final int MAX_SEARCH_LENGTH = 25;
+
 	private final SlotRestrictedInput[] cellView = new SlotRestrictedInput[5];
 	private final IMEMonitor<IAEItemStack> monitor;
 	private final IItemList<IAEItemStack> items = AEApi.instance().storage().createItemList();
@@ -83,9 +97,25 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 	public boolean canAccessViewCells = false;
 	@GuiSync( 98 )
 	public boolean hasPower = false;
+	@GuiSync( 95 )
+	public boolean serverView = false;
 	private IConfigManagerHost gui;
 	private IConfigManager serverCM;
 	private IGridNode networkNode;
+	private InventoryUpdatePublisher publisher;
+	private long sentGeneration;
+	// server side: the session written to the client, client side: the session read from the server.
+	private ItemHandleTable handleTable;
+	// server side sorted and filtered view, of which only the window the client looks at is sent.
+	private SortedItemView view;
+	private final ItemStack[] viewCells = new ItemStack[5];
+	private int windowOffset;
+	private int windowLength;
+	private boolean windowChanged;
+	// the page the viewers got last, null if they need it in full.
+	private List<IAEItemStack> sentPage;
+	private int sentStart;
+	private int sentViewSize;
 
 	public ContainerMEMonitorable( final InventoryPlayer ip, final ITerminalHost monitorable )
 	{
@@ -108,10 +138,34 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 			this.serverCM = monitorable.getConfigManager();
 
 			this.monitor = monitorable.getItemInventory();
-			if( this.monitor != null )
+			if( AEConfig.instance.isFeatureEnabled( AEFeature.ServerTerminalView ) )
+			{
+				this.view = new SortedItemView();
+				this.serverView = true;
+				this.updateViewSorting();
+			}
+			else if( this.monitor instanceof NetworkMonitor )
+			{
+				this.publisher = ( (NetworkMonitor<IAEItemStack>) this.monitor ).getUpdatePublisher();
+			}
+
+			if( this.publisher != null )
+			{
+				this.sentGeneration = this.publisher.subscribe( this, null );
+			}
+			else if( this.monitor != null )
 			{
 				this.monitor.addListener( this, null );
 
+				if( this.view == null && AEConfig.instance.isFeatureEnabled( AEFeature.CompactInventorySync ) )
+				{
+					this.handleTable = new ItemHandleTable();
+				}
+			}
+
+			if( this.monitor != null )
+			{
+
 				this.setCellInventory( this.monitor );
 
 				if( monitorable instanceof IPortableCell )
@@ -186,6 +240,12 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 				if( sideLocal != sideRemote )
 				{
 					this.clientCM.putSetting( set, sideLocal );
+
+					if( this.view != null )
+					{
+						this.updateViewSorting();
+					}
+
 					for( final Object crafter : this.listeners )
 					{
 						try
@@ -200,13 +260,28 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 				}
 			}
 
-			if( !this.items.isEmpty() )
+			if( this.publisher != null )
+			{
+				final long generation = this.publisher.getGeneration();
+
+				if( generation != this.sentGeneration )
+				{
+					// a subscriber that fell behind can not apply the latest delta on its own.
+					this.sendPackets( generation == this.sentGeneration + 1 ? this.publisher.getDeltaPackets() : this.publisher.getFullListPackets() );
+					this.sentGeneration = generation;
+				}
+			}
+			else if( this.view != null )
+			{
+				this.sendViewPage();
+			}
+			else if( !this.items.isEmpty() && !this.listeners.isEmpty() )
 			{
 				try
 				{
 					final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
 
-					final PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate();
+					final PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( this.handleTable );
 
 					for( final IAEItemStack is : this.items )
 					{
@@ -260,6 +335,142 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 		}
 	}
 
+	/**
+	 * Server side, searches the view for the given string from the client's search box, cut to the length the box
+	 * allows.
+	 */
+	public void setViewSearch( final String search )
+	{
+		if( this.view != null )
+		{
+			this.view.setSearch( search.length() > MAX_SEARCH_LENGTH ? search.substring( 0, MAX_SEARCH_LENGTH ) : search );
+		}
+	}
+
+	/**
+	 * Server side, moves the window of the view which is sent to the client.
+	 */
+	public void setViewWindow( final int offset, final int length )
+	{
+		this.windowOffset = Math.max( 0, offset );
+		this.windowLength = Math.max( 0, Math.min( length, MAX_WINDOW_LENGTH ) );
+		this.windowChanged = true;
+	}
+
+	public boolean isServerView()
+	{
+		return this.serverView;
+	}
+
+	private void updateViewSorting()
+	{
+		this.view.setSorting( this.serverCM.getSetting( Settings.SORT_BY ), (SortDir) this.serverCM.getSetting( Settings.SORT_DIRECTION ), this.serverCM.getSetting( Settings.VIEW_MODE ) );
+	}
+
+	private void updateViewCells()
+	{
+		boolean changed = false;
+
+		for( int x = 0; x < this.viewCells.length; x++ )
+		{
+			final ItemStack is = this.cellView[x] == null ? null : this.cellView[x].getStack();
+			if( !ItemStack.areItemStacksEqual( is, this.viewCells[x] ) )
+			{
+				this.viewCells[x] = is == null ? null : is.copy();
+				changed = true;
+			}
+		}
+
+		if( changed )
+		{
+			this.view.setPartitions( ItemViewCell.createFilter( this.viewCells ) );
+		}
+	}
+
+	private void sendViewPage()
+	{
+		if( this.listeners.isEmpty() )
+		{
+			return;
+		}
+
+		this.updateViewCells();
+
+		final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
+
+		for( final IAEItemStack is : this.items )
+		{
+			final IAEItemStack current = monitorCache.findPrecise( is );
+			if( current == null )
+			{
+				is.reset();
+				this.view.update( is );
+			}
+			else
+			{
+				this.view.update( current );
+			}
+		}
+
+		this.items.resetStatus();
+
+		if( this.view.refresh( monitorCache ) || this.windowChanged )
+		{
+			// the pages right before and after the visible one go along, so scrolling does not show empty slots.
+			final int start = Math.max( 0, this.windowOffset - this.windowLength );
+			final List<IAEItemStack> page = this.view.getRange( start, this.windowOffset + 2 * this.windowLength );
+			final boolean full = this.windowChanged || this.sentPage == null || this.sentStart != start;
+
+			final List<Integer> rows = new ArrayList<Integer>();
+			final List<IAEItemStack> stacks = new ArrayList<IAEItemStack>();
+
+			for( int x = 0; x < page.size(); x++ )
+			{
+				final IAEItemStack is = page.get( x );
+				if( full || x >= this.sentPage.size() || !isSameRow( this.sentPage.get( x ), is ) )
+				{
+					rows.add( x );
+					stacks.add( is.copy() );
+				}
+			}
+
+			this.windowChanged = false;
+
+			if( !full && rows.isEmpty() && page.size() == this.sentPage.size() && this.view.size() == this.sentViewSize )
+			{
+				return;
+			}
+
+			this.sentPage = new ArrayList<IAEItemStack>( page.size() );
+			for( final IAEItemStack is : page )
+			{
+				this.sentPage.add( is.copy() );
+			}
+			this.sentStart = start;
+			this.sentViewSize = this.view.size();
+
+			final int[] sentRows = new int[rows.size()];
+			for( int x = 0; x < sentRows.length; x++ )
+			{
+				sentRows[x] = rows.get( x );
+			}
+
+			try
+			{
+				this.sendPacket( this.listeners, new PacketMEViewPage( this.view.size(), start, page.size(), full, sentRows, stacks ) );
+			}
+			catch( final IOException e )
+			{
+				AELog.debug( e );
+			}
+		}
+	}
+
+	private static boolean isSameRow( final IAEItemStack sent, final IAEItemStack current )
+	{
+		return sent.equals( current ) && sent.getStackSize() == current.getStackSize() && sent.getCountRequestable() == current.getCountRequestable() && sent.isCraftable() == current.isCraftable();
+	}
+
 	protected void updatePowerStatus()
 	{
 		try
@@ -305,16 +516,72 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 	{
 		super.addListener( c );
 
-		this.queueInventory( c );
+		if( this.handleTable != null && Platform.isServer() )
+		{
+			// a new viewer can not pick up a running session, so everybody starts over with a new one.
+			this.handleTable = new ItemHandleTable();
+			this.queueInventory( this.listeners );
+		}
+		else
+		{
+			this.queueInventory( Collections.singletonList( c ) );
+		}
 	}
 
-	private void queueInventory( final IContainerListener c )
+	private void sendPackets( final List<PacketMEInventoryUpdate> packets )
 	{
-		if( Platform.isServer() && c instanceof EntityPlayer && this.monitor != null )
+		for( final Object c : this.listeners )
+		{
+			if( c instanceof EntityPlayer )
+			{
+				for( final PacketMEInventoryUpdate piu : packets )
+				{
+					NetworkHandler.instance.sendTo( piu, (EntityPlayerMP) c );
+				}
+			}
+		}
+	}
+
+	private void sendPacket( final List<IContainerListener> targets, final PacketMEInventoryUpdate piu )
+	{
+		for( final IContainerListener c : targets )
+		{
+			if( c instanceof EntityPlayer )
+			{
+				NetworkHandler.instance.sendTo( piu, (EntityPlayerMP) c );
+			}
+		}
+	}
+
+	private void queueInventory( final List<IContainerListener> targets )
+	{
+		boolean hasPlayer = false;
+		for( final IContainerListener c : targets )
+		{
+			hasPlayer |= c instanceof EntityPlayer;
+		}
+
+		if( !Platform.isServer() || !hasPlayer )
+		{
+			return;
+		}
+
+		if( this.view != null )
+		{
+			this.windowChanged = true;
+		}
+		else if( this.publisher != null )
+		{
+			for( final PacketMEInventoryUpdate piu : this.publisher.getFullListPackets() )
+			{
+				this.sendPacket( targets, piu );
+			}
+		}
+		else if( this.monitor != null )
 		{
 			try
 			{
-				PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate();
+				PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( this.handleTable );
 				final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
 
 				for( final IAEItemStack send : monitorCache )
@@ -325,14 +592,14 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 					}
 					catch( final BufferOverflowException boe )
 					{
-						NetworkHandler.instance.sendTo( piu, (EntityPlayerMP) c );
+						this.sendPacket( targets, piu );
 
-						piu = new PacketMEInventoryUpdate();
+						piu = new PacketMEInventoryUpdate( this.handleTable );
 						piu.appendItem( send );
 					}
 				}
 
-				NetworkHandler.instance.sendTo( piu, (EntityPlayerMP) c );
+				this.sendPacket( targets, piu );
 			}
 			catch( final IOException e )
 			{
@@ -340,15 +607,28 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 			}
 		}
 	}
+
+	/**
+	 * Client side, the table of the session the server is writing to this container.
+	 */
+	public ItemHandleTable getHandleTable( final int session )
+	{
+		if( this.handleTable == null || this.handleTable.getSession() != session )
+		{
+			this.handleTable = new ItemHandleTable( session );
+		}
+
+		return this.handleTable;
+	}
 	
 	@Override
 	public void removeListener( final IContainerListener c )
 	{
 		super.removeListener( c );
 
-		if( this.listeners.isEmpty() && this.monitor != null )
+		if( this.listeners.isEmpty() )
 		{
-			this.monitor.removeListener( this );
+			this.stopListening();
 		}
 	}
 
@@ -356,7 +636,16 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 	public void onContainerClosed( final EntityPlayer player )
 	{
 		super.onContainerClosed( player );
-		if( this.monitor != null )
+		this.stopListening();
+	}
+
+	private void stopListening()
+	{
+		if( this.publisher != null )
+		{
+			this.publisher.unsubscribe( this );
+		}
+		else if( this.monitor != null )
 		{
 			this.monitor.removeListener( this );
 		}
@@ -380,10 +669,12 @@ public class ContainerMEMonitorable extends AEBaseContainer implements IConfigMa
 	@Override
 	public void onListUpdate()
 	{
-		for( final IContainerListener c : this.listeners )
+		if( this.view != null )
 		{
-			this.queueInventory( c );
+			this.view.invalidate();
 		}
+
+		this.queueInventory( this.listeners );
 	}
 
 	@Override
@@ -168,15 +168,7 @@ public class SlotRestrictedInput extends AppEngSlot
 					return true;
 				}
 
-				for( final ItemStack optional : AEApi.instance().registries().inscriber().getOptionals() )
-				{
-					if( Platform.isSameItemPrecise( optional, i ) )
-					{
-						return true;
-					}
-				}
-
-				return false;
+				return AEApi.instance().registries().inscriber().isOptional( i );
 
 			case INSCRIBER_INPUT:
 				return true;/*
@@ -99,6 +99,7 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 	public double meteoriteSpawnChance = 0.3;
 	public int[] meteoriteDimensionWhitelist = { 0 };
 	public int craftingCalculationTimePerTick = 5;
+	public int craftingCalculationThreads = Math.max( 1, Runtime.getRuntime().availableProcessors() / 2 );
 	PowerUnits selectedPowerUnit = PowerUnits.AE;
 	private double WirelessBaseCost = 8;
 	private double WirelessCostMultiplier = 1;
@@ -218,6 +219,7 @@ public final class AEConfig extends Configuration implements IConfigurableObject
 		if( this.isFeatureEnabled( AEFeature.CraftingCPU ) )
 		{
 			this.craftingCalculationTimePerTick = this.get( "craftingCPU", "craftingCalculationTimePerTick", this.craftingCalculationTimePerTick ).getInt( this.craftingCalculationTimePerTick );
+			this.craftingCalculationThreads = Math.max( 1, this.get( "craftingCPU", "craftingCalculationThreads", this.craftingCalculationThreads ).getInt( this.craftingCalculationThreads ) );
 		}
 
 		this.updatable = true;
@@ -36,11 +36,14 @@ import appeng.api.storage.IStorageHelper;
 import appeng.api.storage.data.IAEFluidStack;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
+import appeng.core.AEConfig;
+import appeng.core.features.AEFeature;
 import appeng.crafting.CraftingLink;
 import appeng.util.Platform;
 import appeng.util.item.AEFluidStack;
 import appeng.util.item.AEItemStack;
 import appeng.util.item.FluidList;
+import appeng.util.item.HashedItemList;
 import appeng.util.item.ItemList;
 
 
@@ -68,6 +71,11 @@ public class ApiStorage implements IStorageHelper
 	@Override
 	public IItemList<IAEItemStack> createItemList()
 	{
+		if( AEConfig.instance != null && AEConfig.instance.isFeatureEnabled( AEFeature.HashedItemList ) )
+		{
+			return new HashedItemList();
+		}
+
 		return new ItemList();
 	}
 
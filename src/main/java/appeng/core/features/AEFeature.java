@@ -137,6 +137,23 @@ public enum AEFeature
 	Patterns( Constants.CATEGORY_CRAFTING_FEATURES ),
 	CraftingCPU( Constants.CATEGORY_CRAFTING_FEATURES ),
 
+	HashedItemList( Constants.CATEGORY_PERFORMANCE, false ),
+	AsyncCraftingCalculation( Constants.CATEGORY_PERFORMANCE, false ),
+	IncrementalPathing( Constants.CATEGORY_PERFORMANCE, false ),
+	IndexedNetworkStorage( Constants.CATEGORY_PERFORMANCE, false ),
+	BatchedStorageUpdates( Constants.CATEGORY_PERFORMANCE, false ),
+	IncrementalStorageList( Constants.CATEGORY_PERFORMANCE, false ),
+	SharedTerminalUpdates( Constants.CATEGORY_PERFORMANCE, false ),
+	CompactInventorySync( Constants.CATEGORY_PERFORMANCE, false ),
+	IncrementalCellSaving( Constants.CATEGORY_PERFORMANCE, false ),
+	ColumnarCellStorage( Constants.CATEGORY_PERFORMANCE, false ),
+	IndexedRecipeLookup( Constants.CATEGORY_PERFORMANCE, false ),
+	FuzzyEmitterTotals( Constants.CATEGORY_PERFORMANCE, false ),
+	InterfaceTerminalEvents( Constants.CATEGORY_PERFORMANCE, false ),
+	ServerTerminalView( Constants.CATEGORY_PERFORMANCE, false ),
+	DynamicGridConnectivity( Constants.CATEGORY_PERFORMANCE, false ),
+	DeferredGridAssembly( Constants.CATEGORY_PERFORMANCE, false ),
+
 	ChunkLoggerTrace( Constants.CATEGORY_COMMANDS, false );
 
 	public final String category;
@@ -184,5 +201,6 @@ public enum AEFeature
 		private static final String CATEGORY_FACADES = "Facades";
 		private static final String CATEGORY_NETWORK_TOOL = "NetworkTool";
 		private static final String CATEGORY_PORTABLE_CELL = "PortableCell";
+		private static final String CATEGORY_PERFORMANCE = "Performance";
 	}
 }
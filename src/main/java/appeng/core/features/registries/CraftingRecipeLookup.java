@@ -0,0 +1,391 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.core.features.registries;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.CraftingManager;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.ShapedRecipes;
+import net.minecraft.item.crafting.ShapelessRecipes;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.oredict.OreDictionary;
+import net.minecraftforge.oredict.ShapedOreRecipe;
+import net.minecraftforge.oredict.ShapelessOreRecipe;
+
+import appeng.api.features.ICraftingRecipeLookup;
+import appeng.core.AEConfig;
+import appeng.core.features.AEFeature;
+
+
+/**
+ * Indexes the vanilla recipe list by the items a recipe needs, so a lookup only calls {@link IRecipe#matches} on
+ * recipes which can use the items in the grid, in their registration order. The first indexed match of exact grids is
+ * remembered in a small LRU, including grids without any.
+ *
+ * Only the vanilla and ore dictionary shaped and shapeless recipes can be indexed. They only look at the item and
+ * damage in each slot, so their result depends on nothing but the grid. Every other recipe is checked for every grid.
+ * The index is rebuilt once any entry of the recipe list is replaced, added or removed, an ore is registered, or
+ * {@link #invalidate()} is called.
+ */
+public final class CraftingRecipeLookup implements ICraftingRecipeLookup
+{
+
+	private static final int CACHE_SIZE = 512;
+
+	private final Map<Item, List<Integer>> byItem = new HashMap<Item, List<Integer>>();
+	private final BitSet unindexed = new BitSet();
+	// position of the first indexed recipe matching a grid, or the size of the list if none does.
+	private final Map<GridKey, Integer> hits = new LinkedHashMap<GridKey, Integer>( 16, 0.75f, true )
+	{
+
+		private static final long serialVersionUID = 3916414396414286367L;
+
+		@Override
+		protected boolean removeEldestEntry( final Map.Entry<GridKey, Integer> eldest )
+		{
+			return this.size() > CACHE_SIZE;
+		}
+	};
+
+	// the recipes at the time the index was built, compared by identity.
+	private IRecipe[] indexed;
+
+	public CraftingRecipeLookup()
+	{
+		MinecraftForge.EVENT_BUS.register( this );
+	}
+
+	@SubscribeEvent
+	public void onOreRegister( final OreDictionary.OreRegisterEvent event )
+	{
+		// ore ingredients are indexed by their members at the time.
+		this.invalidate();
+	}
+
+	@Override
+	public IRecipe findMatchingRecipe( final InventoryCrafting inv, final World world )
+	{
+		final List<IRecipe> rl = CraftingManager.getInstance().getRecipeList();
+
+		if( AEConfig.instance == null || !AEConfig.instance.isFeatureEnabled( AEFeature.IndexedRecipeLookup ) )
+		{
+			for( final IRecipe r : rl )
+			{
+				if( r.matches( inv, world ) )
+				{
+					return r;
+				}
+			}
+
+			return null;
+		}
+
+		synchronized( this )
+		{
+			if( !this.isIndexed( rl ) )
+			{
+				this.rebuild( rl );
+			}
+
+			final GridKey key = new GridKey( inv );
+			Integer first = this.hits.get( key );
+
+			if( first == null )
+			{
+				first = this.scan( rl, key, inv, world );
+				this.hits.put( key, first );
+			}
+
+			// the other recipes may look at more than the grid key, so they are never cached.
+			for( int x = this.unindexed.nextSetBit( 0 ); x >= 0 && x < first; x = this.unindexed.nextSetBit( x + 1 ) )
+			{
+				final IRecipe r = rl.get( x );
+				if( r.matches( inv, world ) )
+				{
+					return r;
+				}
+			}
+
+			return first < rl.size() ? rl.get( first ) : null;
+		}
+	}
+
+	@Override
+	public ItemStack findMatchingRecipeOutput( final InventoryCrafting inv, final World world )
+	{
+		final IRecipe r = this.findMatchingRecipe( inv, world );
+
+		if( r == null )
+		{
+			return null;
+		}
+
+		return r.getCraftingResult( inv );
+	}
+
+	@Override
+	public synchronized void invalidate()
+	{
+		this.indexed = null;
+	}
+
+	private boolean isIndexed( final List<IRecipe> rl )
+	{
+		if( this.indexed == null || this.indexed.length != rl.size() )
+		{
+			return false;
+		}
+
+		for( int x = 0; x < this.indexed.length; x++ )
+		{
+			if( this.indexed[x] != rl.get( x ) )
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the position of the first indexed recipe matching the grid, or the size of the list if none does.
+	 */
+	private int scan( final List<IRecipe> rl, final GridKey key, final InventoryCrafting inv, final World world )
+	{
+		final BitSet candidates = new BitSet( rl.size() );
+
+		for( final Item item : key.items )
+		{
+			final List<Integer> positions = item == null ? null : this.byItem.get( item );
+
+			if( positions != null )
+			{
+				for( final int position : positions )
+				{
+					candidates.set( position );
+				}
+			}
+		}
+
+		for( int x = candidates.nextSetBit( 0 ); x >= 0; x = candidates.nextSetBit( x + 1 ) )
+		{
+			if( rl.get( x ).matches( inv, world ) )
+			{
+				return x;
+			}
+		}
+
+		return rl.size();
+	}
+
+	private void rebuild( final List<IRecipe> rl )
+	{
+		this.byItem.clear();
+		this.unindexed.clear();
+		this.hits.clear();
+
+		for( int x = 0; x < rl.size(); x++ )
+		{
+			final Set<Item> items = getRequiredItems( rl.get( x ) );
+
+			if( items == null )
+			{
+				this.unindexed.set( x );
+				continue;
+			}
+
+			for( final Item item : items )
+			{
+				List<Integer> positions = this.byItem.get( item );
+				if( positions == null )
+				{
+					positions = new ArrayList<Integer>( 2 );
+					this.byItem.put( item, positions );
+				}
+
+				positions.add( x );
+			}
+		}
+
+		this.indexed = rl.toArray( new IRecipe[rl.size()] );
+	}
+
+	/**
+	 * @return the items of the most selective ingredient, one of which has to be in the grid for the recipe to match,
+	 * or null if the recipe cannot be indexed.
+	 */
+	private static Set<Item> getRequiredItems( final IRecipe r )
+	{
+		final Object[] inputs = getInputs( r );
+
+		if( inputs == null )
+		{
+			return null;
+		}
+
+		Set<Item> best = null;
+
+		for( final Object in : inputs )
+		{
+			if( in == null )
+			{
+				continue;
+			}
+
+			final Set<Item> items = new HashSet<Item>();
+
+			if( in instanceof ItemStack )
+			{
+				if( ( (ItemStack) in ).getItem() == null )
+				{
+					return null;
+				}
+
+				items.add( ( (ItemStack) in ).getItem() );
+			}
+			else if( in instanceof List )
+			{
+				for( final Object o : (List<?>) in )
+				{
+					if( !( o instanceof ItemStack ) || ( (ItemStack) o ).getItem() == null )
+					{
+						return null;
+					}
+
+					items.add( ( (ItemStack) o ).getItem() );
+				}
+			}
+			else
+			{
+				return null;
+			}
+
+			if( best == null || items.size() < best.size() )
+			{
+				best = items;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Subclasses can override matches, so only the exact classes are trusted.
+	 */
+	private static Object[] getInputs( final IRecipe r )
+	{
+		final Class<?> c = r.getClass();
+
+		if( c == ShapedRecipes.class )
+		{
+			return ( (ShapedRecipes) r ).recipeItems;
+		}
+
+		if( c == ShapelessRecipes.class )
+		{
+			return ( (ShapelessRecipes) r ).recipeItems.toArray();
+		}
+
+		if( c == ShapedOreRecipe.class )
+		{
+			return ( (ShapedOreRecipe) r ).getInput();
+		}
+
+		if( c == ShapelessOreRecipe.class )
+		{
+			return ( (ShapelessOreRecipe) r ).getInput().toArray();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Snapshot of the item, damage and tag in every slot of a grid, stack sizes are ignored.
+	 */
+	private static final class GridKey
+	{
+
+		private final Item[] items;
+		private final int[] damage;
+		private final NBTTagCompound[] tags;
+		private final int hash;
+
+		private GridKey( final InventoryCrafting inv )
+		{
+			final int size = inv.getSizeInventory();
+
+			this.items = new Item[size];
+			this.damage = new int[size];
+			this.tags = new NBTTagCompound[size];
+
+			for( int x = 0; x < size; x++ )
+			{
+				final ItemStack is = inv.getStackInSlot( x );
+
+				if( is != null )
+				{
+					this.items[x] = is.getItem();
+					this.damage[x] = is.getItemDamage();
+					this.tags[x] = is.hasTagCompound() ? (NBTTagCompound) is.getTagCompound().copy() : null;
+				}
+			}
+
+			this.hash = ( Arrays.hashCode( this.items ) * 31 + Arrays.hashCode( this.damage ) ) * 31 + Arrays.hashCode( this.tags );
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( this == obj )
+			{
+				return true;
+			}
+
+			if( !( obj instanceof GridKey ) )
+			{
+				return false;
+			}
+
+			final GridKey other = (GridKey) obj;
+			return this.hash == other.hash && Arrays.equals( this.items, other.items ) && Arrays.equals( this.damage, other.damage ) && Arrays.equals( this.tags, other.tags );
+		}
+	}
+}
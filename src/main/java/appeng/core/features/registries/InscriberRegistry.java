@@ -22,13 +22,17 @@ package appeng.core.features.registries;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 
 import appeng.api.features.IInscriberRecipe;
@@ -36,6 +40,7 @@ import appeng.api.features.IInscriberRecipeBuilder;
 import appeng.api.features.IInscriberRegistry;
 import appeng.api.features.InscriberProcessType;
 import appeng.core.features.registries.entries.InscriberRecipe;
+import appeng.util.Platform;
 
 
 /**
@@ -49,11 +54,17 @@ public final class InscriberRegistry implements IInscriberRegistry
 	private final Set<ItemStack> optionals;
 	private final Set<ItemStack> inputs;
 
+	// recipes by the item and damage of their inputs and optionals, items which are missing fail with one lookup.
+	private final Map<ItemKey, List<IInscriberRecipe>> recipesByInput;
+	private final Map<ItemKey, List<ItemStack>> optionalsByItem;
+
 	public InscriberRegistry()
 	{
 		this.inputs = new HashSet<ItemStack>();
 		this.optionals = new HashSet<ItemStack>();
 		this.recipes = new HashSet<IInscriberRecipe>();
+		this.recipesByInput = new HashMap<ItemKey, List<IInscriberRecipe>>();
+		this.optionalsByItem = new HashMap<ItemKey, List<ItemStack>>();
 	}
 
 	@Nonnull
@@ -84,6 +95,63 @@ public final class InscriberRegistry implements IInscriberRegistry
 		return new Builder();
 	}
 
+	@Nullable
+	@Override
+	public IInscriberRecipe findRecipe( @Nullable final ItemStack top, @Nullable final ItemStack input, @Nullable final ItemStack bottom )
+	{
+		if( input == null )
+		{
+			return null;
+		}
+
+		final List<IInscriberRecipe> candidates = this.recipesByInput.get( new ItemKey( input ) );
+		if( candidates == null )
+		{
+			return null;
+		}
+
+		for( final IInscriberRecipe recipe : candidates )
+		{
+			if( matchesPresses( recipe, top, bottom ) || matchesPresses( recipe, bottom, top ) )
+			{
+				for( final ItemStack option : recipe.getInputs() )
+				{
+					if( Platform.isSameItemPrecise( option, input ) )
+					{
+						return recipe;
+					}
+				}
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public boolean isOptional( @Nullable final ItemStack is )
+	{
+		if( is == null )
+		{
+			return false;
+		}
+
+		final List<ItemStack> candidates = this.optionalsByItem.get( new ItemKey( is ) );
+		if( candidates == null )
+		{
+			return false;
+		}
+
+		for( final ItemStack optional : candidates )
+		{
+			if( Platform.isSameItemPrecise( optional, is ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	@Override
 	public void addRecipe( final IInscriberRecipe recipe )
 	{
@@ -98,6 +166,8 @@ public final class InscriberRegistry implements IInscriberRegistry
 		this.optionals.addAll( recipe.getBottomOptional().asSet() );
 
 		this.inputs.addAll( recipe.getInputs() );
+
+		this.index( recipe );
 	}
 
 	@Override
@@ -111,6 +181,101 @@ public final class InscriberRegistry implements IInscriberRegistry
 				iterator.remove();
 			}
 		}
+
+		this.recipesByInput.clear();
+		this.optionalsByItem.clear();
+
+		for( final IInscriberRecipe recipe : this.recipes )
+		{
+			this.index( recipe );
+		}
+	}
+
+	private void index( final IInscriberRecipe recipe )
+	{
+		for( final ItemStack input : recipe.getInputs() )
+		{
+			final ItemKey key = new ItemKey( input );
+
+			List<IInscriberRecipe> list = this.recipesByInput.get( key );
+			if( list == null )
+			{
+				list = new ArrayList<IInscriberRecipe>( 1 );
+				this.recipesByInput.put( key, list );
+			}
+
+			if( !list.contains( recipe ) )
+			{
+				list.add( recipe );
+			}
+		}
+
+		for( final ItemStack optional : recipe.getTopOptional().asSet() )
+		{
+			this.indexOptional( optional );
+		}
+
+		for( final ItemStack optional : recipe.getBottomOptional().asSet() )
+		{
+			this.indexOptional( optional );
+		}
+	}
+
+	private void indexOptional( final ItemStack optional )
+	{
+		final ItemKey key = new ItemKey( optional );
+
+		List<ItemStack> list = this.optionalsByItem.get( key );
+		if( list == null )
+		{
+			list = new ArrayList<ItemStack>( 1 );
+			this.optionalsByItem.put( key, list );
+		}
+
+		list.add( optional );
+	}
+
+	/**
+	 * Same as the check the inscriber always did, including its operator precedence: a missing first press matches
+	 * a recipe without top press whatever the second one is.
+	 */
+	private static boolean matchesPresses( final IInscriberRecipe recipe, @Nullable final ItemStack first, @Nullable final ItemStack second )
+	{
+		return ( first == null && !recipe.getTopOptional().isPresent() ) || ( Platform.isSameItemPrecise( first, recipe.getTopOptional().orNull() ) ) && // and...
+		( second == null && !recipe.getBottomOptional().isPresent() ) | ( Platform.isSameItemPrecise( second, recipe.getBottomOptional().orNull() ) );
+	}
+
+	/**
+	 * Item and damage of a stack, tags are compared by the lookups themselves.
+	 */
+	private static final class ItemKey
+	{
+		private final Item item;
+		private final int damage;
+
+		private ItemKey( final ItemStack is )
+		{
+			this.item = is.getItem();
+			this.damage = is.getMetadata();
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return System.identityHashCode( this.item ) * 31 + this.damage;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( !( obj instanceof ItemKey ) )
+			{
+				return false;
+			}
+
+			final ItemKey other = (ItemKey) obj;
+			return this.item == other.item && this.damage == other.damage;
+		}
 	}
 
 	/**
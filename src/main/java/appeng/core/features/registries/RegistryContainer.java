@@ -19,6 +19,7 @@
 package appeng.core.features.registries;
 
 
+import appeng.api.features.ICraftingRecipeLookup;
 import appeng.api.features.IGrinderRegistry;
 import appeng.api.features.IInscriberRegistry;
 import appeng.api.features.ILocatableRegistry;
@@ -59,6 +60,7 @@ public class RegistryContainer implements IRegistryContainer
 	private final IMatterCannonAmmoRegistry matterCannonReg = new MatterCannonAmmoRegistry();
 	private final IPlayerRegistry playerRegistry = new PlayerRegistry();
 	private final IRecipeHandlerRegistry recipeReg = new RecipeHandlerRegistry();
+	private final ICraftingRecipeLookup craftingRecipes = new CraftingRecipeLookup();
 
 	@Override
 	public IMovableRegistry movable()
@@ -138,6 +140,12 @@ public class RegistryContainer implements IRegistryContainer
 		return this.recipeReg;
 	}
 
+	@Override
+	public ICraftingRecipeLookup craftingRecipes()
+	{
+		return this.craftingRecipes;
+	}
+
 	@Override
 	public IWorldGen worldgen()
 	{
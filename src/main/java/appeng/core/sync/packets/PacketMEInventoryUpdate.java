@@ -45,10 +45,12 @@ import appeng.client.gui.implementations.GuiCraftConfirm;
 import appeng.client.gui.implementations.GuiCraftingCPU;
 import appeng.client.gui.implementations.GuiMEMonitorable;
 import appeng.client.gui.implementations.GuiNetworkStatus;
+import appeng.container.implementations.ContainerMEMonitorable;
 import appeng.core.AELog;
 import appeng.core.sync.AppEngPacket;
 import appeng.core.sync.network.INetworkInfo;
 import appeng.util.item.AEItemStack;
+import appeng.util.item.ItemHandleTable;
 
 
 public class PacketMEInventoryUpdate extends AppEngPacket
@@ -56,29 +58,46 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 	private static final int UNCOMPRESSED_PACKET_BYTE_LIMIT = 16 * 1024 * 1024;
 	private static final int OPERATION_BYTE_LIMIT = 2 * 1024;
 	private static final int TEMP_BUFFER_SIZE = 1024;
+	private static final int DEFLATE_BUFFER_SIZE = 8 * 1024;
 	private static final int STREAM_MASK = 0xff;
 
+	/**
+	 * Ref of the first packet of a full list, the terminal drops everything it shows before applying it.
+	 */
+	public static final byte FULL_LIST = 1;
+
 	// input.
 	@Nullable
-	private final List<IAEItemStack> list;
+	private List<IAEItemStack> list;
+	// handle table encoded stacks, decoded once the receiving container is known.
+	@Nullable
+	private final ByteBuf encoded;
 	// output...
 	private final byte ref;
+	private final int session;
+	@Nullable
+	private final ItemHandleTable handleTable;
 
 	@Nullable
 	private final ByteBuf data;
 	@Nullable
 	private final GZIPOutputStream compressFrame;
+	@Nullable
+	private final ByteBuf itemBuffer;
 
 	private int writtenBytes = 0;
 	private boolean empty = true;
+	private boolean closed = false;
 
 	// automatic.
 	public PacketMEInventoryUpdate( final ByteBuf stream ) throws IOException
 	{
 		this.data = null;
 		this.compressFrame = null;
-		this.list = new LinkedList<IAEItemStack>();
+		this.itemBuffer = null;
+		this.handleTable = null;
 		this.ref = stream.readByte();
+		this.session = stream.readInt();
 
 		// int originalBytes = stream.readableBytes();
 
@@ -93,6 +112,20 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 
 				return stream.readByte() & STREAM_MASK;
 			}
+
+			@Override
+			public int read( final byte[] b, final int off, final int len ) throws IOException
+			{
+				final int readable = Math.min( len, stream.readableBytes() );
+
+				if( readable <= 0 )
+				{
+					return len == 0 ? 0 : -1;
+				}
+
+				stream.readBytes( b, off, readable );
+				return readable;
+			}
 		} );
 
 		final ByteBuf uncompressed = Unpooled.buffer( stream.readableBytes() );
@@ -110,6 +143,16 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 		// int uncompressedBytes = uncompressed.readableBytes();
 		// AELog.info( "Receiver: " + originalBytes + " -> " + uncompressedBytes );
 
+		if( this.session != 0 )
+		{
+			this.encoded = uncompressed;
+			this.empty = !uncompressed.isReadable();
+			return;
+		}
+
+		this.encoded = null;
+		this.list = new LinkedList<IAEItemStack>();
+
 		while( uncompressed.readableBytes() > 0 )
 		{
 			this.list.add( AEItemStack.loadItemStackFromPacket( uncompressed ) );
@@ -126,19 +169,45 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 
 	// api
 	public PacketMEInventoryUpdate( final byte ref ) throws IOException
+	{
+		this( ref, null );
+	}
+
+	/**
+	 * @param handleTable session to encode the stacks with, or null to send them in full.
+	 */
+	public PacketMEInventoryUpdate( @Nullable final ItemHandleTable handleTable ) throws IOException
+	{
+		this( (byte) 0, handleTable );
+	}
+
+	private PacketMEInventoryUpdate( final byte ref, @Nullable final ItemHandleTable handleTable ) throws IOException
 	{
 		this.ref = ref;
+		this.handleTable = handleTable;
+		this.session = handleTable == null ? 0 : handleTable.getSession();
+		this.encoded = null;
 		this.data = Unpooled.buffer( OPERATION_BYTE_LIMIT );
 		this.data.writeInt( this.getPacketID() );
 		this.data.writeByte( this.ref );
+		this.data.writeInt( this.session );
 
+		this.itemBuffer = Unpooled.buffer( OPERATION_BYTE_LIMIT );
+
+		// the deflater hands out whole blocks, copy them in one go instead of byte by byte.
 		this.compressFrame = new GZIPOutputStream( new OutputStream(){
 			@Override
 			public void write( final int value ) throws IOException
 			{
 				PacketMEInventoryUpdate.this.data.writeByte( value );
 			}
-		} );
+
+			@Override
+			public void write( final byte[] b, final int off, final int len ) throws IOException
+			{
+				PacketMEInventoryUpdate.this.data.writeBytes( b, off, len );
+			}
+		}, DEFLATE_BUFFER_SIZE );
 
 		this.list = null;
 	}
@@ -147,6 +216,34 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 	@SideOnly( Side.CLIENT )
 	public void clientPacketData( final INetworkInfo network, final AppEngPacket packet, final EntityPlayer player )
 	{
+		if( this.encoded != null )
+		{
+			// the session lives in the container, which is opened before any of its packets arrive.
+			if( !( player.openContainer instanceof ContainerMEMonitorable ) )
+			{
+				return;
+			}
+
+			final ItemHandleTable table = ( (ContainerMEMonitorable) player.openContainer ).getHandleTable( this.session );
+			this.list = new LinkedList<IAEItemStack>();
+
+			try
+			{
+				while( this.encoded.isReadable() )
+				{
+					final IAEItemStack is = table.read( this.encoded );
+					if( is != null )
+					{
+						this.list.add( is );
+					}
+				}
+			}
+			catch( final IOException e )
+			{
+				AELog.debug( e );
+			}
+		}
+
 		final GuiScreen gs = Minecraft.getMinecraft().currentScreen;
 
 		if( gs instanceof GuiCraftConfirm )
@@ -161,7 +258,7 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 
 		if( gs instanceof GuiMEMonitorable )
 		{
-			( (GuiMEMonitorable) gs ).postUpdate( this.list );
+			( (GuiMEMonitorable) gs ).postUpdate( this.list, this.ref );
 		}
 
 		if( gs instanceof GuiNetworkStatus )
@@ -176,9 +273,14 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 	{
 		try
 		{
-			this.compressFrame.close();
+			if( !this.closed )
+			{
+				this.closed = true;
+				this.compressFrame.close();
+			}
 
-			this.configureWrite( this.data );
+			// every send gets its own view of the data, so the same packet can go out to several players.
+			this.configureWrite( this.data.duplicate() );
 			return super.getProxy();
 		}
 		catch( final IOException e )
@@ -191,12 +293,25 @@ public class PacketMEInventoryUpdate extends AppEngPacket
 
 	public void appendItem( final IAEItemStack is ) throws IOException, BufferOverflowException
 	{
-		final ByteBuf tmp = Unpooled.buffer( OPERATION_BYTE_LIMIT );
-		is.writeToPacket( tmp );
+		final ByteBuf tmp = this.itemBuffer;
+		tmp.clear();
+
+		if( this.handleTable != null )
+		{
+			this.handleTable.write( is, tmp );
+		}
+		else
+		{
+			is.writeToPacket( tmp );
+		}
 
-		this.compressFrame.flush();
 		if( this.writtenBytes + tmp.readableBytes() > UNCOMPRESSED_PACKET_BYTE_LIMIT )
 		{
+			if( this.handleTable != null )
+			{
+				this.handleTable.revert();
+			}
+
 			throw new BufferOverflowException();
 		}
 		else
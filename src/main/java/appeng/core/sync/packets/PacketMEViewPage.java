@@ -0,0 +1,115 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.core.sync.packets;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiScreen;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import appeng.api.storage.data.IAEItemStack;
+import appeng.client.gui.implementations.GuiMEMonitorable;
+import appeng.core.sync.AppEngPacket;
+import appeng.core.sync.network.INetworkInfo;
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * The rows of a page of the terminal view the server sorted and filtered, along with the size of the whole view.
+ *
+ * Only rows which changed since the last page are sent, unless the page is sent in full after it moved.
+ */
+public class PacketMEViewPage extends AppEngPacket
+{
+
+	private final int viewSize;
+	private final int start;
+	private final int length;
+	private final boolean full;
+	private final int[] rows;
+	private final List<IAEItemStack> stacks;
+
+	// automatic.
+	public PacketMEViewPage( final ByteBuf stream ) throws IOException
+	{
+		this.viewSize = stream.readInt();
+		this.start = stream.readInt();
+		this.length = stream.readInt();
+		this.full = stream.readBoolean();
+
+		final int count = stream.readInt();
+		this.rows = new int[count];
+		this.stacks = new ArrayList<IAEItemStack>( count );
+
+		for( int x = 0; x < count; x++ )
+		{
+			this.rows[x] = stream.readInt();
+			this.stacks.add( AEItemStack.loadItemStackFromPacket( stream ) );
+		}
+	}
+
+	// api
+	public PacketMEViewPage( final int viewSize, final int start, final int length, final boolean full, final int[] rows, final List<IAEItemStack> stacks ) throws IOException
+	{
+		this.viewSize = viewSize;
+		this.start = start;
+		this.length = length;
+		this.full = full;
+		this.rows = rows;
+		this.stacks = stacks;
+
+		final ByteBuf data = Unpooled.buffer();
+
+		data.writeInt( this.getPacketID() );
+		data.writeInt( viewSize );
+		data.writeInt( start );
+		data.writeInt( length );
+		data.writeBoolean( full );
+		data.writeInt( rows.length );
+
+		for( int x = 0; x < rows.length; x++ )
+		{
+			data.writeInt( rows[x] );
+			stacks.get( x ).writeToPacket( data );
+		}
+
+		this.configureWrite( data );
+	}
+
+	@Override
+	@SideOnly( Side.CLIENT )
+	public void clientPacketData( final INetworkInfo network, final AppEngPacket packet, final EntityPlayer player )
+	{
+		final GuiScreen gs = Minecraft.getMinecraft().currentScreen;
+
+		if( gs instanceof GuiMEMonitorable )
+		{
+			( (GuiMEMonitorable) gs ).postPage( this.viewSize, this.start, this.length, this.full, this.rows, this.stacks );
+		}
+	}
+}
@@ -46,6 +46,7 @@ import appeng.container.implementations.ContainerCraftConfirm;
 import appeng.container.implementations.ContainerCraftingCPU;
 import appeng.container.implementations.ContainerCraftingStatus;
 import appeng.container.implementations.ContainerLevelEmitter;
+import appeng.container.implementations.ContainerMEMonitorable;
 import appeng.container.implementations.ContainerNetworkTool;
 import appeng.container.implementations.ContainerPatternTerm;
 import appeng.container.implementations.ContainerPriority;
@@ -178,6 +179,22 @@ public class PacketValueConfig extends AppEngPacket
 				cpt.getPatternTerminal().setSubstitution( this.Value.equals( "1" ) );
 			}
 		}
+		else if( this.Name.startsWith( "Terminal.View." ) && c instanceof ContainerMEMonitorable )
+		{
+			final ContainerMEMonitorable cmm = (ContainerMEMonitorable) c;
+			if( this.Name.equals( "Terminal.View.Search" ) )
+			{
+				cmm.setViewSearch( this.Value );
+			}
+			else if( this.Name.equals( "Terminal.View.Window" ) )
+			{
+				final String[] window = this.Value.split( "," );
+				if( window.length == 2 )
+				{
+					cmm.setViewWindow( Integer.parseInt( window[0] ), Integer.parseInt( window[1] ) );
+				}
+			}
+		}
 		else if( this.Name.startsWith( "StorageBus." ) && c instanceof ContainerStorageBus )
 		{
 			final ContainerStorageBus ccw = (ContainerStorageBus) c;
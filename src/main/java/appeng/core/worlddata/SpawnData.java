@@ -23,8 +23,18 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nonnull;
 
@@ -37,108 +47,248 @@ import appeng.core.AELog;
 
 
 /**
+ * Keeps the decoded spawn data of recently used regions in memory, one region being the 16x16 chunks of a file.
+ *
+ * Changes are written behind, by a background thread every few seconds and when the world stops. Only regions whose
+ * changes are on disk are evicted, a region which failed to write stays cached and is written again by the next flush.
+ *
  * @author thatsIch
  * @version rv3 - 30.05.2015
  * @since rv3 30.05.2015
  */
-final class SpawnData implements IWorldSpawnData
+final class SpawnData implements IWorldSpawnData, IOnWorldStoppable
 {
+	private static final int REGION_BITS = 4;
+	private static final int REGION_MASK = ( 1 << REGION_BITS ) - 1;
+	private static final int CACHED_REGIONS = 256;
+	private static final long FLUSH_INTERVAL_SECONDS = 10;
+
 	@Nonnull
 	private final File spawnDirectory;
 	@Nonnull
 	private final MeteorDataNameEncoder encoder;
+	private final Map<RegionKey, Region> regions;
+	private final ScheduledExecutorService flusher;
+	// only one flush writes files at a time, the monitor of this is only held to take snapshots.
+	private final Object writeLock = new Object();
 
 	public SpawnData( @Nonnull final File spawnDirectory )
 	{
 		Preconditions.checkNotNull( spawnDirectory );
 
 		this.spawnDirectory = spawnDirectory;
-		this.encoder = new MeteorDataNameEncoder( 4 );
-	}
+		this.encoder = new MeteorDataNameEncoder( REGION_BITS );
+		this.regions = new LinkedHashMap<RegionKey, Region>( CACHED_REGIONS, 0.75f, true ){
 
-	@Override
-	public void setGenerated( final int dim, final int chunkX, final int chunkZ )
-	{
-		synchronized( SpawnData.class )
-		{
-			final NBTTagCompound data = this.loadSpawnData( dim, chunkX, chunkZ );
+			private static final long serialVersionUID = -4236717367391557214L;
+
+			@Override
+			protected boolean removeEldestEntry( final Map.Entry<RegionKey, Region> eldest )
+			{
+				// dirty regions are trimmed by the next flush instead.
+				return this.size() > CACHED_REGIONS && !eldest.getValue().isDirty();
+			}
+		};
 
-			// edit.
-			data.setBoolean( chunkX + "," + chunkZ, true );
+		this.flusher = Executors.newSingleThreadScheduledExecutor( new FlusherThreadFactory() );
+		this.flusher.scheduleWithFixedDelay( new Runnable(){
 
-			this.writeSpawnData( dim, chunkX, chunkZ, data );
-		}
+			@Override
+			public void run()
+			{
+				SpawnData.this.flush();
+			}
+		}, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS );
 	}
 
 	@Override
-	public boolean hasGenerated( final int dim, final int chunkX, final int chunkZ )
+	public synchronized void setGenerated( final int dim, final int chunkX, final int chunkZ )
 	{
-		synchronized( SpawnData.class )
+		final Region region = this.getRegion( dim, chunkX >> REGION_BITS, chunkZ >> REGION_BITS );
+		final int bit = bitOf( chunkX, chunkZ );
+
+		if( !region.generated.get( bit ) )
 		{
-			final NBTTagCompound data = this.loadSpawnData( dim, chunkX, chunkZ );
-			return data.getBoolean( chunkX + "," + chunkZ );
+			region.generated.set( bit );
+			region.version++;
 		}
 	}
 
 	@Override
-	public boolean addNearByMeteorites( final int dim, final int chunkX, final int chunkZ, final NBTTagCompound newData )
+	public synchronized boolean hasGenerated( final int dim, final int chunkX, final int chunkZ )
 	{
-		synchronized( SpawnData.class )
-		{
-			final NBTTagCompound data = this.loadSpawnData( dim, chunkX, chunkZ );
+		return this.getRegion( dim, chunkX >> REGION_BITS, chunkZ >> REGION_BITS ).generated.get( bitOf( chunkX, chunkZ ) );
+	}
 
-			// edit.
-			final int size = data.getInteger( "num" );
-			data.setTag( String.valueOf( size ), newData );
-			data.setInteger( "num", size + 1 );
+	@Override
+	public synchronized boolean addNearByMeteorites( final int dim, final int chunkX, final int chunkZ, final NBTTagCompound newData )
+	{
+		final Region region = this.getRegion( dim, chunkX >> REGION_BITS, chunkZ >> REGION_BITS );
 
-			this.writeSpawnData( dim, chunkX, chunkZ, data );
+		region.meteorites.add( (NBTTagCompound) newData.copy() );
+		region.version++;
 
-			return true;
-		}
+		return true;
 	}
 
 	@Override
-	public Collection<NBTTagCompound> getNearByMeteorites( final int dim, final int chunkX, final int chunkZ )
+	public synchronized Collection<NBTTagCompound> getNearByMeteorites( final int dim, final int chunkX, final int chunkZ )
 	{
 		final Collection<NBTTagCompound> ll = new LinkedList<NBTTagCompound>();
 
-		synchronized( SpawnData.class )
+		for( int x = -1; x <= 1; x++ )
 		{
-			for( int x = -1; x <= 1; x++ )
+			for( int z = -1; z <= 1; z++ )
 			{
-				for( int z = -1; z <= 1; z++ )
+				final int cx = x + ( chunkX >> REGION_BITS );
+				final int cz = z + ( chunkZ >> REGION_BITS );
+
+				for( final NBTTagCompound data : this.getRegion( dim, cx, cz ).meteorites )
 				{
-					final int cx = x + ( chunkX >> 4 );
-					final int cz = z + ( chunkZ >> 4 );
+					ll.add( (NBTTagCompound) data.copy() );
+				}
+			}
+		}
+
+		return ll;
+	}
+
+	@Override
+	public void onWorldStop()
+	{
+		this.flusher.shutdown();
+		this.flush();
+	}
 
-					final NBTTagCompound data = this.loadSpawnData( dim, cx << 4, cz << 4 );
+	private void flush()
+	{
+		synchronized( this.writeLock )
+		{
+			final List<Snapshot> snapshots = new ArrayList<Snapshot>();
 
-					if( data != null )
+			synchronized( this )
+			{
+				for( final Map.Entry<RegionKey, Region> entry : this.regions.entrySet() )
+				{
+					if( entry.getValue().isDirty() )
 					{
-						// edit.
-						final int size = data.getInteger( "num" );
-						for( int s = 0; s < size; s++ )
-						{
-							ll.add( data.getCompoundTag( String.valueOf( s ) ) );
-						}
+						snapshots.add( new Snapshot( entry.getKey(), entry.getValue(), this.encodeRegion( entry.getKey(), entry.getValue() ) ) );
 					}
 				}
 			}
+
+			final List<Snapshot> written = new ArrayList<Snapshot>( snapshots.size() );
+			for( final Snapshot snapshot : snapshots )
+			{
+				if( this.writeSpawnData( snapshot.key, snapshot.data ) )
+				{
+					written.add( snapshot );
+				}
+			}
+
+			synchronized( this )
+			{
+				for( final Snapshot snapshot : written )
+				{
+					snapshot.region.savedVersion = snapshot.version;
+				}
+
+				this.trim();
+			}
 		}
+	}
 
-		return ll;
+	/**
+	 * Evicts the least recently used clean regions the cache kept while they were dirty.
+	 */
+	private void trim()
+	{
+		final Iterator<Region> i = this.regions.values().iterator();
+		while( this.regions.size() > CACHED_REGIONS && i.hasNext() )
+		{
+			if( !i.next().isDirty() )
+			{
+				i.remove();
+			}
+		}
+	}
+
+	private static int bitOf( final int chunkX, final int chunkZ )
+	{
+		return ( ( chunkZ & REGION_MASK ) << REGION_BITS ) | ( chunkX & REGION_MASK );
+	}
+
+	private Region getRegion( final int dim, final int regionX, final int regionZ )
+	{
+		final RegionKey key = new RegionKey( dim, regionX, regionZ );
+		Region region = this.regions.get( key );
+
+		if( region == null )
+		{
+			region = this.readRegion( key );
+			this.regions.put( key, region );
+		}
+
+		return region;
 	}
 
-	private NBTTagCompound loadSpawnData( final int dim, final int chunkX, final int chunkZ )
+	private Region readRegion( final RegionKey key )
 	{
-		if( !Thread.holdsLock( SpawnData.class ) )
+		final Region region = new Region();
+		final NBTTagCompound data = this.loadSpawnData( key );
+
+		final int baseX = key.regionX << REGION_BITS;
+		final int baseZ = key.regionZ << REGION_BITS;
+
+		for( int z = 0; z <= REGION_MASK; z++ )
+		{
+			for( int x = 0; x <= REGION_MASK; x++ )
+			{
+				if( data.getBoolean( ( baseX + x ) + "," + ( baseZ + z ) ) )
+				{
+					region.generated.set( bitOf( x, z ) );
+				}
+			}
+		}
+
+		final int size = data.getInteger( "num" );
+		for( int s = 0; s < size; s++ )
 		{
-			throw new IllegalStateException( "Invalid Request" );
+			region.meteorites.add( data.getCompoundTag( String.valueOf( s ) ) );
 		}
 
+		return region;
+	}
+
+	/**
+	 * Encodes the region in the same layout the files always had.
+	 */
+	private NBTTagCompound encodeRegion( final RegionKey key, final Region region )
+	{
+		final NBTTagCompound data = new NBTTagCompound();
+
+		final int baseX = key.regionX << REGION_BITS;
+		final int baseZ = key.regionZ << REGION_BITS;
+
+		for( int bit = region.generated.nextSetBit( 0 ); bit >= 0; bit = region.generated.nextSetBit( bit + 1 ) )
+		{
+			data.setBoolean( ( baseX + ( bit & REGION_MASK ) ) + "," + ( baseZ + ( bit >> REGION_BITS ) ), true );
+		}
+
+		for( int s = 0; s < region.meteorites.size(); s++ )
+		{
+			data.setTag( String.valueOf( s ), region.meteorites.get( s ) );
+		}
+
+		data.setInteger( "num", region.meteorites.size() );
+
+		return data;
+	}
+
+	private NBTTagCompound loadSpawnData( final RegionKey key )
+	{
 		NBTTagCompound data = null;
-		final String fileName = this.encoder.encode( dim, chunkX, chunkZ );
+		final String fileName = this.encoder.encode( key.dim, key.regionX << REGION_BITS, key.regionZ << REGION_BITS );
 		final File file = new File( this.spawnDirectory, fileName );
 
 		if( file.isFile() )
@@ -178,14 +328,12 @@ final class SpawnData implements IWorldSpawnData
 		return data;
 	}
 
-	private void writeSpawnData( final int dim, final int chunkX, final int chunkZ, final NBTTagCompound data )
+	/**
+	 * @return false if the file could not be written.
+	 */
+	private boolean writeSpawnData( final RegionKey key, final NBTTagCompound data )
 	{
-		if( !Thread.holdsLock( SpawnData.class ) )
-		{
-			throw new IllegalStateException( "Invalid Request" );
-		}
-
-		final String fileName = this.encoder.encode( dim, chunkX, chunkZ );
+		final String fileName = this.encoder.encode( key.dim, key.regionX << REGION_BITS, key.regionZ << REGION_BITS );
 		final File file = new File( this.spawnDirectory, fileName );
 		FileOutputStream fileOutputStream = null;
 
@@ -193,10 +341,12 @@ final class SpawnData implements IWorldSpawnData
 		{
 			fileOutputStream = new FileOutputStream( file );
 			CompressedStreamTools.writeCompressed( data, fileOutputStream );
+			return true;
 		}
 		catch( final Throwable e )
 		{
-			AELog.debug( e );
+			AELog.warn( e, "Unable to write meteorite spawn data to " + file );
+			return false;
 		}
 		finally
 		{
@@ -213,4 +363,76 @@ final class SpawnData implements IWorldSpawnData
 			}
 		}
 	}
+
+	private static final class RegionKey
+	{
+		private final int dim;
+		private final int regionX;
+		private final int regionZ;
+
+		private RegionKey( final int dim, final int regionX, final int regionZ )
+		{
+			this.dim = dim;
+			this.regionX = regionX;
+			this.regionZ = regionZ;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return ( this.dim * 31 + this.regionX ) * 31 + this.regionZ;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( !( obj instanceof RegionKey ) )
+			{
+				return false;
+			}
+
+			final RegionKey other = (RegionKey) obj;
+			return this.dim == other.dim && this.regionX == other.regionX && this.regionZ == other.regionZ;
+		}
+	}
+
+	private static final class Region
+	{
+		private final BitSet generated = new BitSet( 1 << ( 2 * REGION_BITS ) );
+		private final List<NBTTagCompound> meteorites = new ArrayList<NBTTagCompound>();
+		private int version;
+		private int savedVersion;
+
+		private boolean isDirty()
+		{
+			return this.version != this.savedVersion;
+		}
+	}
+
+	private static final class Snapshot
+	{
+		private final RegionKey key;
+		private final Region region;
+		private final NBTTagCompound data;
+		private final int version;
+
+		private Snapshot( final RegionKey key, final Region region, final NBTTagCompound data )
+		{
+			this.key = key;
+			this.region = region;
+			this.data = data;
+			this.version = region.version;
+		}
+	}
+
+	private static final class FlusherThreadFactory implements ThreadFactory
+	{
+		@Override
+		public Thread newThread( @Nonnull final Runnable job )
+		{
+			final Thread thread = new Thread( job, "AE Spawn Data Writer" );
+			thread.setDaemon( true );
+			return thread;
+		}
+	}
 }
@@ -20,6 +20,8 @@ package appeng.crafting;
 
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Stopwatch;
@@ -45,7 +47,9 @@ import appeng.api.networking.storage.IStorageGrid;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
 import appeng.api.util.DimensionalCoord;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
+import appeng.core.features.AEFeature;
 import appeng.hooks.TickHandler;
 
 
@@ -68,6 +72,7 @@ public class CraftingJob implements Runnable, ICraftingJob
 	private long bytes = 0;
 	private final BaseActionSource actionSrc;
 	private final ICraftingCallback callback;
+	private final boolean snapshot;
 	private boolean running = false;
 	private boolean done = false;
 	private int time = 5;
@@ -91,6 +96,10 @@ public class CraftingJob implements Runnable, ICraftingJob
 
 		this.setTree( this.getCraftingTree( cc, what ) );
 		this.availableCheck = null;
+
+		// the storage and the patterns are both captured by now, so unless the tree has to fire crafting events the
+		// calculation does not need to be synchronized with the server thread anymore.
+		this.snapshot = AEConfig.instance.isFeatureEnabled( AEFeature.AsyncCraftingCalculation ) && !this.getTree().requiresWorld();
 	}
 
 	private CraftingTreeNode getCraftingTree( final ICraftingGrid cc, final IAEItemStack what )
@@ -136,15 +145,19 @@ public class CraftingJob implements Runnable, ICraftingJob
 		{
 			try
 			{
-				TickHandler.INSTANCE.registerCraftingSimulation( this.world, this );
+				if( !this.snapshot )
+				{
+					TickHandler.INSTANCE.registerCraftingSimulation( this.world, this );
+				}
+
 				this.handlePausing();
 
 				final Stopwatch timer = Stopwatch.createStarted();
 
-				final MECraftingInventory craftingInventory = new MECraftingInventory( this.original, true, false, true );
+				final MECraftingInventory craftingInventory = MECraftingInventory.overlay( this.original, true, false, true );
 				craftingInventory.ignore( this.output );
 
-				this.availableCheck = new MECraftingInventory( this.original, false, false, false );
+				this.availableCheck = MECraftingInventory.overlay( this.original, false, false, false );
 				this.getTree().request( craftingInventory, this.output.getStackSize(), this.actionSrc );
 				this.getTree().dive( this );
 
@@ -165,10 +178,10 @@ public class CraftingJob implements Runnable, ICraftingJob
 				try
 				{
 					final Stopwatch timer = Stopwatch.createStarted();
-					final MECraftingInventory craftingInventory = new MECraftingInventory( this.original, true, false, true );
+					final MECraftingInventory craftingInventory = MECraftingInventory.overlay( this.original, true, false, true );
 					craftingInventory.ignore( this.output );
 
-					this.availableCheck = new MECraftingInventory( this.original, false, false, false );
+					this.availableCheck = MECraftingInventory.overlay( this.original, false, false, false );
 
 					this.getTree().setSimulate();
 					this.getTree().request( craftingInventory, this.output.getStackSize(), this.actionSrc );
@@ -221,6 +234,16 @@ public class CraftingJob implements Runnable, ICraftingJob
 
 	void handlePausing() throws InterruptedException
 	{
+		if( this.snapshot )
+		{
+			if( Thread.interrupted() )
+			{
+				throw new InterruptedException();
+			}
+
+			return;
+		}
+
 		if( this.incTime > 100 )
 		{
 			this.incTime = 0;
@@ -304,6 +327,30 @@ public class CraftingJob implements Runnable, ICraftingJob
 		return this.done;
 	}
 
+	/**
+	 * @return true if this job is calculated against its own snapshot of the grid without pausing for the server
+	 * thread, its plan has to be revalidated when it is submitted.
+	 */
+	public boolean isSnapshot()
+	{
+		return this.snapshot;
+	}
+
+	/**
+	 * @return every pattern the calculated plan relies on
+	 */
+	public Set<ICraftingPatternDetails> getPatterns()
+	{
+		final Set<ICraftingPatternDetails> patterns = new HashSet<ICraftingPatternDetails>();
+
+		if( this.getTree() != null )
+		{
+			this.getTree().getPatterns( patterns );
+		}
+
+		return patterns;
+	}
+
 	World getWorld()
 	{
 		return this.world;
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
 
@@ -127,17 +128,16 @@ public class CraftingTreeNode
 		if( this.getSlot() >= 0 && this.parent != null && this.parent.details.isCraftable() )
 		{
 			final Collection<IAEItemStack> itemList;
-			final IItemList<IAEItemStack> inventoryList = inv.getItemList();
 
 			if( this.parent.details.canSubstitute() )
 			{
-				itemList = inventoryList.findFuzzy( this.what, FuzzyMode.IGNORE_ALL );
+				itemList = inv.findFuzzy( this.what, FuzzyMode.IGNORE_ALL );
 			}
 			else
 			{
 				itemList = Lists.newArrayList();
 
-				final IAEItemStack item = inventoryList.findPrecise( this.what );
+				final IAEItemStack item = inv.findPrecise( this.what );
 
 				if( item != null )
 				{
@@ -256,7 +256,7 @@ public class CraftingTreeNode
 				{
 					while( pro.possible && l > 0 )
 					{
-						final MECraftingInventory subInv = new MECraftingInventory( inv, true, true, true );
+						final MECraftingInventory subInv = MECraftingInventory.overlay( inv, true, true, true );
 						pro.request( subInv, 1, src );
 
 						this.what.setStackSize( l );
@@ -400,6 +400,30 @@ public class CraftingTreeNode
 		}
 	}
 
+	/**
+	 * @return true if calculating this branch needs to fire crafting events in the world
+	 */
+	boolean requiresWorld()
+	{
+		for( final CraftingTreeProcess pro : this.nodes )
+		{
+			if( pro.requiresWorld() )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	void getPatterns( final Set<ICraftingPatternDetails> patterns )
+	{
+		for( final CraftingTreeProcess pro : this.nodes )
+		{
+			pro.getPatterns( patterns );
+		}
+	}
+
 	int getSlot()
 	{
 		return this.slot;
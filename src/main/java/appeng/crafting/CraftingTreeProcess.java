@@ -22,6 +22,7 @@ package appeng.crafting;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import net.minecraft.inventory.InventoryCrafting;
 import net.minecraft.item.ItemStack;
@@ -321,4 +322,35 @@ public class CraftingTreeProcess
 			pro.getPlan( plan );
 		}
 	}
+
+	boolean requiresWorld()
+	{
+		if( this.fullSimulation )
+		{
+			return true;
+		}
+
+		for( final CraftingTreeNode pro : this.nodes.keySet() )
+		{
+			if( pro.requiresWorld() )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	void getPatterns( final Set<ICraftingPatternDetails> patterns )
+	{
+		if( this.crafts > 0 )
+		{
+			patterns.add( this.details );
+		}
+
+		for( final CraftingTreeNode pro : this.nodes.keySet() )
+		{
+			pro.getPatterns( patterns );
+		}
+	}
 }
@@ -19,8 +19,15 @@
 package appeng.crafting;
 
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import appeng.api.AEApi;
 import appeng.api.config.Actionable;
+import appeng.api.config.FuzzyMode;
 import appeng.api.networking.security.BaseActionSource;
 import appeng.api.storage.IMEInventory;
 import appeng.api.storage.IMEMonitor;
@@ -37,6 +44,12 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 	private final IMEInventory<IAEItemStack> target;
 	private final IItemList<IAEItemStack> localCache;
 
+	/**
+	 * overlays only store the stacks they modified in localCache, everything else is read through from the parent.
+	 */
+	private final boolean overlay;
+	private final Set<IAEItemStack> shadowed;
+
 	private final boolean logExtracted;
 	private final IItemList<IAEItemStack> extractedCache;
 
@@ -57,6 +70,8 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 		this.logMissing = false;
 		this.target = null;
 		this.par = null;
+		this.overlay = false;
+		this.shadowed = null;
 	}
 
 	public MECraftingInventory( final MECraftingInventory parent )
@@ -96,6 +111,8 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 		this.localCache = this.target.getAvailableItems( AEApi.instance().storage().createItemList() );
 
 		this.par = parent;
+		this.overlay = false;
+		this.shadowed = null;
 	}
 
 	public MECraftingInventory( final IMEMonitor<IAEItemStack> target, final BaseActionSource src, final boolean logExtracted, final boolean logInjections, final boolean logMissing )
@@ -139,6 +156,8 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 		}
 
 		this.par = null;
+		this.overlay = false;
+		this.shadowed = null;
 	}
 
 	public MECraftingInventory( final IMEInventory<IAEItemStack> target, final boolean logExtracted, final boolean logInjections, final boolean logMissing )
@@ -177,6 +196,43 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 
 		this.localCache = target.getAvailableItems( AEApi.instance().storage().createItemList() );
 		this.par = null;
+		this.overlay = false;
+		this.shadowed = null;
+	}
+
+	private MECraftingInventory( final MECraftingInventory parent, final boolean logExtracted, final boolean logInjections, final boolean logMissing, final boolean overlay )
+	{
+		this.target = parent;
+		this.par = parent;
+		this.logExtracted = logExtracted;
+		this.logInjections = logInjections;
+		this.logMissing = logMissing;
+		this.overlay = overlay;
+		this.shadowed = new HashSet<IAEItemStack>();
+
+		this.localCache = AEApi.instance().storage().createItemList();
+		this.missingCache = logMissing ? AEApi.instance().storage().createItemList() : null;
+		this.extractedCache = logExtracted ? AEApi.instance().storage().createItemList() : null;
+		this.injectedCache = logInjections ? AEApi.instance().storage().createItemList() : null;
+	}
+
+	/**
+	 * Creates a layer on top of parent, which only records the changes made to it instead of copying the whole
+	 * parent inventory upfront.
+	 *
+	 * Changes can be pushed to the parent with {@link #commit(BaseActionSource)}, or dropped by discarding the overlay.
+	 * The parent must not be modified while the overlay is in use.
+	 *
+	 * @param parent inventory to read through to
+	 * @param logExtracted record extractions for commit
+	 * @param logInjections record injections for commit
+	 * @param logMissing record missing items for commit
+	 *
+	 * @return new overlay inventory
+	 */
+	public static MECraftingInventory overlay( final MECraftingInventory parent, final boolean logExtracted, final boolean logInjections, final boolean logMissing )
+	{
+		return new MECraftingInventory( parent, logExtracted, logInjections, logMissing, true );
 	}
 
 	@Override
@@ -193,7 +249,16 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			{
 				this.injectedCache.add( input );
 			}
-			this.localCache.add( input );
+
+			final IAEItemStack record = this.getWritableRecord( input );
+			if( record != null )
+			{
+				record.add( input );
+			}
+			else
+			{
+				this.localCache.add( input );
+			}
 		}
 
 		return null;
@@ -207,7 +272,7 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 			return null;
 		}
 
-		final IAEItemStack list = this.localCache.findPrecise( request );
+		final IAEItemStack list = mode == Actionable.MODULATE ? this.getWritableRecord( request ) : this.findPrecise( request );
 		if( list == null || list.getStackSize() == 0 )
 		{
 			return null;
@@ -245,6 +310,17 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 	@Override
 	public IItemList<IAEItemStack> getAvailableItems( final IItemList<IAEItemStack> out )
 	{
+		if( this.overlay )
+		{
+			for( final IAEItemStack is : this.par.getAvailableItems( AEApi.instance().storage().createItemList() ) )
+			{
+				if( !this.shadowed.contains( is ) )
+				{
+					out.add( is );
+				}
+			}
+		}
+
 		for( final IAEItemStack is : this.localCache )
 		{
 			out.add( is );
@@ -259,11 +335,93 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 		return StorageChannel.ITEMS;
 	}
 
+	/**
+	 * For overlays this is a merged copy of all layers, use {@link #findPrecise(IAEItemStack)} and
+	 * {@link #findFuzzy(IAEItemStack, FuzzyMode)} for lookups instead.
+	 *
+	 * @return the available items
+	 */
 	public IItemList<IAEItemStack> getItemList()
 	{
+		if( this.overlay )
+		{
+			return this.getAvailableItems( AEApi.instance().storage().createItemList() );
+		}
+
 		return this.localCache;
 	}
 
+	public IAEItemStack findPrecise( final IAEItemStack what )
+	{
+		if( this.overlay && !this.shadowed.contains( what ) )
+		{
+			return this.par.findPrecise( what );
+		}
+
+		return this.localCache.findPrecise( what );
+	}
+
+	public Collection<IAEItemStack> findFuzzy( final IAEItemStack what, final FuzzyMode mode )
+	{
+		if( !this.overlay )
+		{
+			return this.localCache.findFuzzy( what, mode );
+		}
+
+		final List<IAEItemStack> out = new ArrayList<IAEItemStack>();
+
+		// keep the order of the parent, but prefer the modified records of this layer.
+		for( final IAEItemStack is : this.par.findFuzzy( what, mode ) )
+		{
+			if( !this.shadowed.contains( is ) )
+			{
+				out.add( is );
+			}
+			else
+			{
+				final IAEItemStack local = this.localCache.findPrecise( is );
+				if( local != null )
+				{
+					out.add( local );
+				}
+			}
+		}
+
+		for( final IAEItemStack is : this.localCache.findFuzzy( what, mode ) )
+		{
+			if( !out.contains( is ) )
+			{
+				out.add( is );
+			}
+		}
+
+		return out;
+	}
+
+	/**
+	 * @return the record of this layer which may be modified, copying it from the parent for overlays if required.
+	 */
+	private IAEItemStack getWritableRecord( final IAEItemStack what )
+	{
+		final IAEItemStack local = this.localCache.findPrecise( what );
+
+		if( local != null || !this.overlay || this.shadowed.contains( what ) )
+		{
+			return local;
+		}
+
+		this.shadowed.add( what.copy() );
+
+		final IAEItemStack inherited = this.par.findPrecise( what );
+		if( inherited == null )
+		{
+			return null;
+		}
+
+		this.localCache.add( inherited );
+		return this.localCache.findPrecise( what );
+	}
+
 	public boolean commit( final BaseActionSource src )
 	{
 		final IItemList<IAEItemStack> added = AEApi.instance().storage().createItemList();
@@ -343,7 +501,7 @@ public class MECraftingInventory implements IMEInventory<IAEItemStack>
 
 	void ignore( final IAEItemStack what )
 	{
-		final IAEItemStack list = this.localCache.findPrecise( what );
+		final IAEItemStack list = this.getWritableRecord( what );
 		if( list != null )
 		{
 			list.setStackSize( 0 );
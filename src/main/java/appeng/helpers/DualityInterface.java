@@ -19,6 +19,7 @@
 package appeng.helpers;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashSet;
@@ -129,6 +130,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	private List<ItemStack> waitingToSend = null;
 	private IMEInventory<IAEItemStack> destination;
 	private boolean isWorking = false;
+	private List<IInterfaceTerminalListener> terminalListeners = null;
 
 	public DualityInterface( final AENetworkProxy networkProxy, final IInterfaceHost ih )
 	{
@@ -159,6 +161,11 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 	@Override
 	public void onChangeInventory( final IInventory inv, final int slot, final InvOperation mc, final ItemStack removed, final ItemStack added )
 	{
+		if( inv == this.patterns && this.terminalListeners != null )
+		{
+			this.postPatternChange( slot );
+		}
+
 		if( this.isWorking )
 		{
 			return;
@@ -846,6 +853,7 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		}
 
 		this.markDirty();
+		this.postTerminalStateChange();
 	}
 
 	@Override
@@ -1240,6 +1248,90 @@ public class DualityInterface implements IGridTickable, IStorageMonitorable, IIn
 		this.updateCraftingList();
 	}
 
+	public void addTerminalListener( final IInterfaceTerminalListener listener )
+	{
+		if( this.terminalListeners == null )
+		{
+			this.terminalListeners = new ArrayList<IInterfaceTerminalListener>( 1 );
+		}
+
+		if( !this.terminalListeners.contains( listener ) )
+		{
+			this.terminalListeners.add( listener );
+		}
+	}
+
+	public void removeTerminalListener( final IInterfaceTerminalListener listener )
+	{
+		if( this.terminalListeners != null )
+		{
+			this.terminalListeners.remove( listener );
+
+			if( this.terminalListeners.isEmpty() )
+			{
+				this.terminalListeners = null;
+			}
+		}
+	}
+
+	/**
+	 * Called by the host when the grid changed its power or channel state.
+	 */
+	public void onGridStateChange()
+	{
+		this.notifyNeighbors();
+		this.postTerminalStateChange();
+	}
+
+	private void postPatternChange( final int slot )
+	{
+		final Iterator<IInterfaceTerminalListener> i = this.terminalListeners.iterator();
+		while( i.hasNext() )
+		{
+			final IInterfaceTerminalListener l = i.next();
+			if( l.isValid() )
+			{
+				l.onPatternChange( slot );
+			}
+			else
+			{
+				i.remove();
+			}
+		}
+
+		if( this.terminalListeners.isEmpty() )
+		{
+			this.terminalListeners = null;
+		}
+	}
+
+	private void postTerminalStateChange()
+	{
+		if( this.terminalListeners == null )
+		{
+			return;
+		}
+
+		final Iterator<IInterfaceTerminalListener> i = this.terminalListeners.iterator();
+		while( i.hasNext() )
+		{
+			final IInterfaceTerminalListener l = i.next();
+			if( l.isValid() )
+			{
+				l.onTerminalStateChange();
+			}
+			else
+			{
+				i.remove();
+			}
+		}
+
+		if( this.terminalListeners.isEmpty() )
+		{
+			this.terminalListeners = null;
+		}
+	}
+
 	@Override
 	public int getPriority()
 	{
@@ -0,0 +1,42 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.helpers;
+
+
+/**
+ * Receives the changes of an interface which are visible in the interface terminal.
+ */
+public interface IInterfaceTerminalListener
+{
+
+	/**
+	 * @return false once the listener should be dropped.
+	 */
+	boolean isValid();
+
+	/**
+	 * A pattern slot changed, slot is -1 if any of them could have.
+	 */
+	void onPatternChange( int slot );
+
+	/**
+	 * The interface might have been activated, deactivated or hidden from the terminal.
+	 */
+	void onTerminalStateChange();
+}
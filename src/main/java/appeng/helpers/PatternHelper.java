@@ -29,7 +29,6 @@ import java.util.Set;
 import net.minecraft.inventory.InventoryCrafting;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.item.crafting.CraftingManager;
 import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -254,7 +253,7 @@ public class PatternHelper implements ICraftingPatternDetails, Comparable<Patter
 		}
 		else
 		{
-			final ItemStack testOutput = CraftingManager.getInstance().findMatchingRecipe( this.testFrame, w );
+			final ItemStack testOutput = Platform.findMatchingRecipeOutput( this.testFrame, w );
 
 			if( Platform.isSameItemPrecise( this.correctOutput, testOutput ) )
 			{
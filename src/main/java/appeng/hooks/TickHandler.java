@@ -47,9 +47,11 @@ import appeng.api.util.AEColor;
 import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.CommonHelper;
+import appeng.core.features.AEFeature;
 import appeng.core.sync.packets.PacketPaintedEntity;
 import appeng.crafting.CraftingJob;
 import appeng.me.Grid;
+import appeng.me.GridAssembly;
 import appeng.me.NetworkList;
 import appeng.tile.AEBaseTile;
 import appeng.util.IWorldCallable;
@@ -67,6 +69,7 @@ public class TickHandler
 	private final HandlerRep client = new HandlerRep();
 	private final HashMap<Integer, PlayerColor> cliPlayerColors = new HashMap<Integer, PlayerColor>();
 	private final HashMap<Integer, PlayerColor> srvPlayerColors = new HashMap<Integer, PlayerColor>();
+	private final GridAssembly gridAssembly = new GridAssembly();
 	private CableRenderMode crm = CableRenderMode.Standard;
 
 	public HashMap<Integer, PlayerColor> getPlayerColors()
@@ -98,6 +101,11 @@ public class TickHandler
 		}
 	}
 
+	public GridAssembly getGridAssembly()
+	{
+		return this.gridAssembly;
+	}
+
 	public void addInit( final AEBaseTile tile )
 	{
 		if( Platform.isServer() ) // for no there is no reason to care about this on the client...
@@ -221,12 +229,29 @@ public class TickHandler
 			this.tickColors( this.srvPlayerColors );
 			// ready tiles.
 			final HandlerRep repo = this.getRepo();
-			while( !repo.tiles.isEmpty() )
+			final boolean assemble = !repo.tiles.isEmpty() && AEConfig.instance.isFeatureEnabled( AEFeature.DeferredGridAssembly );
+
+			if( assemble )
+			{
+				this.gridAssembly.begin();
+			}
+
+			try
+			{
+				while( !repo.tiles.isEmpty() )
+				{
+					final AEBaseTile bt = repo.tiles.poll();
+					if( !bt.isInvalid() )
+					{
+						bt.onReady();
+					}
+				}
+			}
+			finally
 			{
-				final AEBaseTile bt = repo.tiles.poll();
-				if( !bt.isInvalid() )
+				if( assemble )
 				{
-					bt.onReady();
+					this.gridAssembly.finish();
 				}
 			}
 
@@ -29,6 +29,7 @@ import java.util.Set;
 import appeng.api.AEApi;
 import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridCache;
+import appeng.api.networking.IGridCacheBulkUpdate;
 import appeng.api.networking.IGridHost;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridStorage;
@@ -49,6 +50,8 @@ public class Grid implements IGrid
 	private GridNode pivot;
 	private int priority; // how import is this network?
 	private GridStorage myStorage;
+	private int membershipVersion;
+	private int bulkUpdates;
 
 	public Grid( final GridNode center )
 	{
@@ -101,8 +104,49 @@ public class Grid implements IGrid
 		return out;
 	}
 
+	/**
+	 * @return a counter which changes whenever a node joins or leaves this grid.
+	 */
+	public int getMembershipVersion()
+	{
+		return this.membershipVersion;
+	}
+
+	/**
+	 * Starts moving a group of nodes in or out of this grid, calls nest.
+	 */
+	void beginBulkUpdate()
+	{
+		if( this.bulkUpdates++ == 0 )
+		{
+			for( final GridCacheWrapper gc : this.caches.values() )
+			{
+				if( gc.getCache() instanceof IGridCacheBulkUpdate )
+				{
+					( (IGridCacheBulkUpdate) gc.getCache() ).beginBulkUpdate();
+				}
+			}
+		}
+	}
+
+	void endBulkUpdate()
+	{
+		if( --this.bulkUpdates == 0 )
+		{
+			for( final GridCacheWrapper gc : this.caches.values() )
+			{
+				if( gc.getCache() instanceof IGridCacheBulkUpdate )
+				{
+					( (IGridCacheBulkUpdate) gc.getCache() ).endBulkUpdate();
+				}
+			}
+		}
+	}
+
 	void remove( final GridNode gridNode )
 	{
+		this.membershipVersion++;
+
 		for( final IGridCache c : this.caches.values() )
 		{
 			final IGridHost machine = gridNode.getMachine();
@@ -136,6 +180,8 @@ public class Grid implements IGrid
 
 	void add( final GridNode gridNode )
 	{
+		this.membershipVersion++;
+
 		final Class<? extends IGridHost> mClass = gridNode.getMachineClass();
 
 		MachineSet nodes = this.machines.get( mClass );
@@ -247,6 +293,14 @@ public class Grid implements IGrid
 		return s;
 	}
 
+	/**
+	 * @return the set tracking the machine class, or null if the grid never had one. Sets are kept once created.
+	 */
+	MachineSet getMachineSet( final Class<? extends IGridHost> c )
+	{
+		return this.machines.get( c );
+	}
+
 	@Override
 	public IReadOnlyCollection<IGridNode> getNodes()
 	{
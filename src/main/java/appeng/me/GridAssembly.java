@@ -0,0 +1,161 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me;
+
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import appeng.api.networking.IGridConnection;
+
+
+/**
+ * Forms the grids of all nodes readied in one tick at once.
+ *
+ * While an assembly is running, new nodes connect to their neighbours without joining or creating a grid. Once it
+ * finishes, every connected group of such nodes becomes one new grid, or joins the grids it touches, so no grid is
+ * built just to be merged away a moment later.
+ */
+public final class GridAssembly
+{
+
+	private final List<GridNode> pending = new ArrayList<GridNode>();
+	private boolean active;
+
+	public void begin()
+	{
+		this.active = true;
+	}
+
+	/**
+	 * Assembles the grids of every node deferred since {@link #begin()}.
+	 */
+	public void finish()
+	{
+		this.active = false;
+
+		final Set<GridNode> visited = Collections.newSetFromMap( new IdentityHashMap<GridNode, Boolean>() );
+
+		for( final GridNode n : this.pending )
+		{
+			// destroyed or already reached by a grid in the meantime.
+			if( !n.isDestroyed() && n.getMyGrid() == null && visited.add( n ) )
+			{
+				this.assemble( n, visited );
+			}
+		}
+
+		this.pending.clear();
+	}
+
+	boolean isActive()
+	{
+		return this.active;
+	}
+
+	void defer( final GridNode node )
+	{
+		this.pending.add( node );
+	}
+
+	private void assemble( final GridNode start, final Set<GridNode> visited )
+	{
+		final List<GridNode> component = new ArrayList<GridNode>();
+		final List<Grid> touched = new ArrayList<Grid>();
+		final Deque<GridNode> next = new ArrayDeque<GridNode>();
+
+		component.add( start );
+		next.add( start );
+
+		// connections made during the assembly start out as not spanning, the search picks a spanning tree.
+		while( !next.isEmpty() )
+		{
+			final GridNode n = next.poll();
+
+			for( final IGridConnection gc : n.getConnections() )
+			{
+				final GridNode other = (GridNode) gc.getOtherSide( n );
+				final Grid grid = other.getMyGrid();
+
+				if( grid != null )
+				{
+					if( !touched.contains( grid ) )
+					{
+						touched.add( grid );
+						( (GridConnection) gc ).setSpanning( true );
+					}
+				}
+				else if( visited.add( other ) )
+				{
+					( (GridConnection) gc ).setSpanning( true );
+					component.add( other );
+					next.add( other );
+				}
+			}
+		}
+
+		if( touched.isEmpty() )
+		{
+			final Grid grid = new Grid( start );
+			this.join( component.subList( 1, component.size() ), grid );
+			return;
+		}
+
+		Grid target = touched.get( 0 );
+		for( int i = 1; i < touched.size(); i++ )
+		{
+			if( GridConnectivity.isABetter( touched.get( i ), target ) )
+			{
+				target = touched.get( i );
+			}
+		}
+
+		this.join( component, target );
+
+		for( final Grid grid : touched )
+		{
+			if( grid != target && !grid.isEmpty() )
+			{
+				GridConnectivity.moveAll( grid, target );
+			}
+		}
+	}
+
+	private void join( final List<GridNode> nodes, final Grid grid )
+	{
+		grid.beginBulkUpdate();
+
+		try
+		{
+			for( final GridNode n : nodes )
+			{
+				n.setGrid( grid );
+			}
+		}
+		finally
+		{
+			grid.endBulkUpdate();
+		}
+	}
+}
@@ -37,6 +37,8 @@ import appeng.api.util.IReadOnlyCollection;
 import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.features.AEFeature;
+import appeng.hooks.TickHandler;
+import appeng.me.cache.PathGridCache;
 import appeng.me.pathfinding.IPathItem;
 import appeng.util.Platform;
 import appeng.util.ReadOnlyCollection;
@@ -53,6 +55,7 @@ public class GridConnection implements IGridConnection, IPathItem
 	private GridNode sideA;
 	private AEPartLocation fromAtoB;
 	private GridNode sideB;
+	private boolean spanning = true;
 
 	public GridConnection( final IGridNode aNode, final IGridNode bNode, final AEPartLocation fromAtoB ) throws FailedConnection
 	{
@@ -93,40 +96,76 @@ public class GridConnection implements IGridConnection, IPathItem
 		this.fromAtoB = fromAtoB;
 		this.sideB = b;
 
+		if( ( a.getMyGrid() == null || b.getMyGrid() == null ) && TickHandler.INSTANCE.getGridAssembly().isActive() )
+		{
+			// the grid is formed once the assembly finishes, which also decides whether this one is spanning.
+			this.spanning = false;
+			this.sideA.addConnection( this );
+			this.sideB.addConnection( this );
+			return;
+		}
+
 		if( b.getMyGrid() == null )
 		{
 			b.setGrid( a.getInternalGrid() );
 		}
+		else if( a.getMyGrid() != null && AEConfig.instance.isFeatureEnabled( AEFeature.DynamicGridConnectivity ) )
+		{
+			GridConnectivity.connectionAdded( this, a, b );
+		}
 		else
 		{
 			if( a.getMyGrid() == null )
 			{
-				final GridPropagator gp = new GridPropagator( b.getInternalGrid() );
-				a.beginVisit( gp );
+				this.propagate( b.getInternalGrid(), a );
 			}
 			else if( b.getMyGrid() == null )
 			{
-				final GridPropagator gp = new GridPropagator( a.getInternalGrid() );
-				b.beginVisit( gp );
+				this.propagate( a.getInternalGrid(), b );
 			}
 			else if( this.isNetworkABetter( a, b ) )
 			{
-				final GridPropagator gp = new GridPropagator( a.getInternalGrid() );
-				b.beginVisit( gp );
+				this.propagate( a.getInternalGrid(), b );
 			}
 			else
 			{
-				final GridPropagator gp = new GridPropagator( b.getInternalGrid() );
-				a.beginVisit( gp );
+				this.propagate( b.getInternalGrid(), a );
 			}
 		}
 
-		// a connection was destroyed RE-PATH!!
-		final IPathingGrid p = this.sideA.getInternalGrid().getCache( IPathingGrid.class );
-		p.repath();
-
 		this.sideA.addConnection( this );
 		this.sideB.addConnection( this );
+
+		// a connection was created RE-PATH!!
+		final PathGridCache p = this.sideA.getInternalGrid().getCache( IPathingGrid.class );
+		p.connectionAdded( this );
+	}
+
+	/**
+	 * Moves everything reachable from start into the grid, as one bulk update of both grids.
+	 */
+	private void propagate( final Grid grid, final GridNode start )
+	{
+		final Grid from = start.getMyGrid();
+
+		grid.beginBulkUpdate();
+		if( from != null )
+		{
+			from.beginBulkUpdate();
+		}
+
+		try
+		{
+			start.beginVisit( new GridPropagator( grid ) );
+		}
+		finally
+		{
+			if( from != null )
+			{
+				from.endBulkUpdate();
+			}
+			grid.endBulkUpdate();
+		}
 	}
 
 	private boolean isNetworkABetter( final GridNode a, final GridNode b )
@@ -170,15 +209,45 @@ public class GridConnection implements IGridConnection, IPathItem
 	@Override
 	public void destroy()
 	{
-		// a connection was destroyed RE-PATH!!
-		final IPathingGrid p = this.sideA.getInternalGrid().getCache( IPathingGrid.class );
-		p.repath();
+		// a connection was destroyed RE-PATH!! Sides without a grid are left to the grid assembly.
+		final Grid grid = this.sideA.getMyGrid() != null ? this.sideA.getMyGrid() : this.sideB.getMyGrid();
+		if( grid != null )
+		{
+			final PathGridCache p = grid.getCache( IPathingGrid.class );
+			p.connectionRemoved( this );
+		}
 
 		this.sideA.removeConnection( this );
 		this.sideB.removeConnection( this );
 
-		this.sideA.validateGrid();
-		this.sideB.validateGrid();
+		if( AEConfig.instance.isFeatureEnabled( AEFeature.DynamicGridConnectivity ) && this.sideA.getMyGrid() != null && this.sideA.getMyGrid() == this.sideB.getMyGrid() )
+		{
+			GridConnectivity.connectionRemoved( this );
+			return;
+		}
+
+		if( this.sideA.getMyGrid() != null )
+		{
+			this.sideA.validateGrid();
+		}
+
+		if( this.sideB.getMyGrid() != null )
+		{
+			this.sideB.validateGrid();
+		}
+	}
+
+	/**
+	 * @return true if this connection is part of the spanning forest kept by {@link GridConnectivity}.
+	 */
+	boolean isSpanning()
+	{
+		return this.spanning;
+	}
+
+	void setSpanning( final boolean spanning )
+	{
+		this.spanning = spanning;
 	}
 
 	@Override
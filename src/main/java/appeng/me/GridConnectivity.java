@@ -0,0 +1,205 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me;
+
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import appeng.api.networking.IGridConnection;
+import appeng.api.networking.IGridNode;
+
+
+/**
+ * Keeps a spanning forest over the grid connections, so merging and splitting grids does not have to walk them.
+ *
+ * A connection is spanning if it joined two grids when it was made. Removing any other connection cannot split a grid.
+ * Removing a spanning one searches both halves of the tree at the same pace, so only the smaller half is walked to the
+ * end. Then either a connection leaving that half takes over, or the half becomes a grid of its own.
+ *
+ * Nodes are moved between grids as a group, so caches can do their per node work once for all of them.
+ */
+final class GridConnectivity
+{
+
+	private GridConnectivity()
+	{
+	}
+
+	/**
+	 * Joins the grids of both nodes for a new connection, moving the nodes of the smaller grid unless only the other
+	 * one is powered.
+	 */
+	static void connectionAdded( final GridConnection c, final GridNode a, final GridNode b )
+	{
+		final Grid gridA = a.getMyGrid();
+		final Grid gridB = b.getMyGrid();
+
+		if( gridA == gridB )
+		{
+			c.setSpanning( false );
+			return;
+		}
+
+		c.setSpanning( true );
+
+		if( isABetter( gridA, gridB ) )
+		{
+			moveAll( gridB, gridA );
+		}
+		else
+		{
+			moveAll( gridA, gridB );
+		}
+	}
+
+	/**
+	 * Called once the connection was removed from both of its nodes.
+	 */
+	static void connectionRemoved( final GridConnection c )
+	{
+		if( !c.isSpanning() )
+		{
+			return;
+		}
+
+		final GridNode a = (GridNode) c.a();
+		final GridNode b = (GridNode) c.b();
+
+		final Set<GridNode> sideA = Collections.newSetFromMap( new IdentityHashMap<GridNode, Boolean>() );
+		final Set<GridNode> sideB = Collections.newSetFromMap( new IdentityHashMap<GridNode, Boolean>() );
+		final Deque<GridNode> nextA = new ArrayDeque<GridNode>();
+		final Deque<GridNode> nextB = new ArrayDeque<GridNode>();
+
+		sideA.add( a );
+		nextA.add( a );
+		sideB.add( b );
+		nextB.add( b );
+
+		while( !nextA.isEmpty() && !nextB.isEmpty() )
+		{
+			visitSpanning( nextA.poll(), sideA, nextA );
+			visitSpanning( nextB.poll(), sideB, nextB );
+		}
+
+		final boolean aIsSmaller = nextA.isEmpty();
+		final Set<GridNode> smaller = aIsSmaller ? sideA : sideB;
+
+		for( final GridNode n : smaller )
+		{
+			for( final IGridConnection gc : n.getConnections() )
+			{
+				if( !smaller.contains( gc.getOtherSide( n ) ) )
+				{
+					// still connected, this one spans the gap now.
+					( (GridConnection) gc ).setSpanning( true );
+					return;
+				}
+			}
+		}
+
+		split( smaller, aIsSmaller ? b : a );
+	}
+
+	private static void visitSpanning( final GridNode n, final Set<GridNode> side, final Deque<GridNode> next )
+	{
+		for( final IGridConnection gc : n.getConnections() )
+		{
+			if( ( (GridConnection) gc ).isSpanning() )
+			{
+				final GridNode other = (GridNode) gc.getOtherSide( n );
+				if( side.add( other ) )
+				{
+					next.add( other );
+				}
+			}
+		}
+	}
+
+	private static void split( final Set<GridNode> nodes, final GridNode remaining )
+	{
+		final Grid grid = remaining.getInternalGrid();
+
+		if( nodes.contains( grid.getPivot() ) )
+		{
+			grid.setPivot( remaining );
+		}
+
+		final Iterator<GridNode> i = nodes.iterator();
+		final Grid newGrid = new Grid( i.next() );
+
+		grid.beginBulkUpdate();
+		newGrid.beginBulkUpdate();
+
+		try
+		{
+			while( i.hasNext() )
+			{
+				i.next().setGrid( newGrid );
+			}
+		}
+		finally
+		{
+			newGrid.endBulkUpdate();
+			grid.endBulkUpdate();
+		}
+	}
+
+	static void moveAll( final Grid from, final Grid to )
+	{
+		final List<GridNode> nodes = new ArrayList<GridNode>( from.size() );
+
+		for( final IGridNode n : from.getNodes() )
+		{
+			nodes.add( (GridNode) n );
+		}
+
+		from.beginBulkUpdate();
+		to.beginBulkUpdate();
+
+		try
+		{
+			for( final GridNode n : nodes )
+			{
+				n.setGrid( to );
+			}
+		}
+		finally
+		{
+			to.endBulkUpdate();
+			from.endBulkUpdate();
+		}
+	}
+
+	static boolean isABetter( final Grid a, final Grid b )
+	{
+		if( a.getPriority() != b.getPriority() )
+		{
+			return a.getPriority() > b.getPriority();
+		}
+
+		return a.size() >= b.size();
+	}
+}
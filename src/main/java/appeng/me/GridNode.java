@@ -75,6 +75,7 @@ public class GridNode implements IGridNode, IPathItem
 	private int compressedData = 0;
 	private int usedChannels = 0;
 	private int lastUsedChannels = 0;
+	private boolean destroyed;
 
 	public GridNode( final IGridBlock what )
 	{
@@ -141,8 +142,21 @@ public class GridNode implements IGridNode, IPathItem
 		this.beginVisit( gsd );
 		if( !gsd.isPivotFound() )
 		{
-			final IGridVisitor gp = new GridPropagator( new Grid( this ) );
-			this.beginVisit( gp );
+			final Grid oldGrid = this.getInternalGrid();
+			final Grid newGrid = new Grid( this );
+
+			oldGrid.beginBulkUpdate();
+			newGrid.beginBulkUpdate();
+
+			try
+			{
+				this.beginVisit( new GridPropagator( newGrid ) );
+			}
+			finally
+			{
+				newGrid.endBulkUpdate();
+				oldGrid.endBulkUpdate();
+			}
 		}
 	}
 
@@ -217,7 +231,16 @@ public class GridNode implements IGridNode, IPathItem
 		}
 
 		this.FindConnections();
-		this.getInternalGrid();
+
+		final GridAssembly assembly = TickHandler.INSTANCE.getGridAssembly();
+		if( this.myGrid == null && assembly.isActive() )
+		{
+			assembly.defer( this );
+		}
+		else
+		{
+			this.getInternalGrid();
+		}
 	}
 
 	@Override
@@ -261,6 +284,8 @@ public class GridNode implements IGridNode, IPathItem
 	@Override
 	public void destroy()
 	{
+		this.destroyed = true;
+
 		while( !this.connections.isEmpty() )
 		{
 			// not part of this network for real anymore.
@@ -271,7 +296,13 @@ public class GridNode implements IGridNode, IPathItem
 
 			final IGridConnection c = this.connections.listIterator().next();
 			final GridNode otherSide = (GridNode) c.getOtherSide( this );
-			otherSide.getInternalGrid().setPivot( otherSide );
+
+			// a node without a grid is waiting for the grid assembly, which picks up whatever it is still connected to.
+			if( otherSide.getMyGrid() != null )
+			{
+				otherSide.getMyGrid().setPivot( otherSide );
+			}
+
 			c.destroy();
 		}
 
@@ -281,6 +312,11 @@ public class GridNode implements IGridNode, IPathItem
 		}
 	}
 
+	boolean isDestroyed()
+	{
+		return this.destroyed;
+	}
+
 	@Override
 	public World getWorld()
 	{
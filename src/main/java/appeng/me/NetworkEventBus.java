@@ -19,8 +19,15 @@
 package appeng.me;
 
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -34,13 +41,24 @@ import appeng.api.networking.events.MENetworkEventSubscribe;
 import appeng.core.AELog;
 
 
+/**
+ * Subscriber methods are bound to generated invokers when their class is read, and each grid keeps the subscribers of
+ * every event type it has seen in an array, which is rebuilt once the grid gains a new machine class.
+ */
 public class NetworkEventBus
 {
 	private static final Collection<Class> READ_CLASSES = new HashSet<Class>();
 	private static final Map<Class<? extends MENetworkEvent>, Map<Class, MENetworkEventInfo>> EVENTS = new HashMap<Class<? extends MENetworkEvent>, Map<Class, MENetworkEventInfo>>();
+	private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+	private static final MethodType INVOKER_TYPE = MethodType.methodType( void.class, Object.class, MENetworkEvent.class );
+
+	private final Map<Class<? extends MENetworkEvent>, Subscriber[]> dispatch = new HashMap<Class<? extends MENetworkEvent>, Subscriber[]>();
 
 	void readClass( final Class listAs, final Class c )
 	{
+		// the grid gained a class, which might subscribe to anything.
+		this.dispatch.clear();
+
 		if( READ_CLASSES.contains( c ) )
 		{
 			return;
@@ -72,7 +90,7 @@ public class NetworkEventBus
 								thisEvent = new MENetworkEventInfo();
 							}
 
-							thisEvent.Add( types[0], c, m );
+							thisEvent.Add( m );
 
 							classEvents.put( listAs, thisEvent );
 						}
@@ -96,24 +114,22 @@ public class NetworkEventBus
 
 	MENetworkEvent postEvent( final Grid g, final MENetworkEvent e )
 	{
-		final Map<Class, MENetworkEventInfo> subscribers = EVENTS.get( e.getClass() );
 		int x = 0;
 
 		try
 		{
-			if( subscribers != null )
+			for( final Subscriber subscriber : this.getSubscribers( g, e.getClass() ) )
 			{
-				for( final Entry<Class, MENetworkEventInfo> subscriber : subscribers.entrySet() )
+				final MENetworkEventInfo target = subscriber.target;
+				if( subscriber.cache != null )
 				{
-					final MENetworkEventInfo target = subscriber.getValue();
-					final GridCacheWrapper cache = g.getCaches().get( subscriber.getKey() );
-					if( cache != null )
-					{
-						x++;
-						target.invoke( cache.getCache(), e );
-					}
+					x++;
+					target.invoke( subscriber.cache.getCache(), e );
+				}
 
-					for( final IGridNode obj : g.getMachines( subscriber.getKey() ) )
+				if( subscriber.machines != null )
+				{
+					for( final IGridNode obj : subscriber.machines )
 					{
 						x++;
 						target.invoke( obj.getMachine(), e );
@@ -156,31 +172,129 @@ public class NetworkEventBus
 		return e;
 	}
 
+	private Subscriber[] getSubscribers( final Grid g, final Class<? extends MENetworkEvent> event )
+	{
+		Subscriber[] subscribers = this.dispatch.get( event );
+
+		if( subscribers == null )
+		{
+			final Map<Class, MENetworkEventInfo> targets = EVENTS.get( event );
+			final List<Subscriber> found = new ArrayList<Subscriber>();
+
+			if( targets != null )
+			{
+				for( final Entry<Class, MENetworkEventInfo> target : targets.entrySet() )
+				{
+					final GridCacheWrapper cache = g.getCaches().get( target.getKey() );
+					final MachineSet machines = g.getMachineSet( target.getKey() );
+
+					if( cache != null || machines != null )
+					{
+						found.add( new Subscriber( target.getValue(), cache, machines ) );
+					}
+				}
+			}
+
+			subscribers = found.isEmpty() ? NO_SUBSCRIBERS : found.toArray( new Subscriber[found.size()] );
+			this.dispatch.put( event, subscribers );
+		}
+
+		return subscribers;
+	}
+
+	private static EventInvoker createInvoker( final Method m ) throws Throwable
+	{
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+		if( !Modifier.isStatic( m.getModifiers() ) )
+		{
+			try
+			{
+				final MethodHandle target = lookup.unreflect( m );
+				final MethodType instantiated = MethodType.methodType( void.class, m.getDeclaringClass(), m.getParameterTypes()[0] );
+				final CallSite site = LambdaMetafactory.metafactory( lookup, "invoke", MethodType.methodType( EventInvoker.class ), INVOKER_TYPE, target, instantiated );
+
+				return (EventInvoker) site.getTarget().invokeExact();
+			}
+			catch( final Throwable t )
+			{
+				// not reachable from here, use a plain method handle instead.
+				AELog.debug( t );
+			}
+		}
+
+		m.setAccessible( true );
+
+		MethodHandle handle = lookup.unreflect( m );
+		if( Modifier.isStatic( m.getModifiers() ) )
+		{
+			handle = MethodHandles.dropArguments( handle, 0, Object.class );
+		}
+
+		return new MethodHandleInvoker( handle.asType( INVOKER_TYPE ) );
+	}
+
+	/**
+	 * Calls a single subscriber method.
+	 */
+	interface EventInvoker
+	{
+		void invoke( Object obj, MENetworkEvent e ) throws Throwable;
+	}
+
+	private static class MethodHandleInvoker implements EventInvoker
+	{
+
+		private final MethodHandle handle;
+
+		public MethodHandleInvoker( final MethodHandle handle )
+		{
+			this.handle = handle;
+		}
+
+		@Override
+		public void invoke( final Object obj, final MENetworkEvent e ) throws Throwable
+		{
+			this.handle.invokeExact( obj, e );
+		}
+	}
+
+	private static class Subscriber
+	{
+
+		private final MENetworkEventInfo target;
+		private final GridCacheWrapper cache;
+		private final MachineSet machines;
+
+		public Subscriber( final MENetworkEventInfo target, final GridCacheWrapper cache, final MachineSet machines )
+		{
+			this.target = target;
+			this.cache = cache;
+			this.machines = machines;
+		}
+	}
+
 	private static class NetworkEventDone extends Throwable
 	{
 
 		private static final long serialVersionUID = -3079021487019171205L;
 	}
 
-	private class EventMethod
+	private static class EventMethod
 	{
 
-		private final Class objClass;
-		private final Method objMethod;
-		private final Class objEvent;
+		private final EventInvoker invoker;
 
-		public EventMethod( final Class Event, final Class ObjClass, final Method ObjMethod )
+		public EventMethod( final Method ObjMethod ) throws Throwable
 		{
-			this.objClass = ObjClass;
-			this.objMethod = ObjMethod;
-			this.objEvent = Event;
+			this.invoker = createInvoker( ObjMethod );
 		}
 
 		private void invoke( final Object obj, final MENetworkEvent e ) throws NetworkEventDone
 		{
 			try
 			{
-				this.objMethod.invoke( obj, e );
+				this.invoker.invoke( obj, e );
 			}
 			catch( final Throwable e1 )
 			{
@@ -198,14 +312,15 @@ public class NetworkEventBus
 		}
 	}
 
-	private class MENetworkEventInfo
+	private static class MENetworkEventInfo
 	{
 
-		private final List<EventMethod> methods = new ArrayList<EventMethod>();
+		private EventMethod[] methods = new EventMethod[0];
 
-		private void Add( final Class Event, final Class ObjClass, final Method ObjMethod )
+		private void Add( final Method ObjMethod ) throws Throwable
 		{
-			this.methods.add( new EventMethod( Event, ObjClass, ObjMethod ) );
+			this.methods = Arrays.copyOf( this.methods, this.methods.length + 1 );
+			this.methods[this.methods.length - 1] = new EventMethod( ObjMethod );
 		}
 
 		private void invoke( final Object obj, final MENetworkEvent e ) throws NetworkEventDone
@@ -34,7 +34,10 @@ import java.util.TreeSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableCollection;
@@ -47,6 +50,7 @@ import net.minecraft.world.World;
 import appeng.api.config.AccessRestriction;
 import appeng.api.config.Actionable;
 import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridCacheBulkUpdate;
 import appeng.api.networking.IGridHost;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridStorage;
@@ -75,6 +79,7 @@ import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.core.AEConfig;
 import appeng.crafting.CraftingJob;
 import appeng.crafting.CraftingLink;
 import appeng.crafting.CraftingLinkNexus;
@@ -86,10 +91,11 @@ import appeng.tile.crafting.TileCraftingTile;
 import appeng.util.ItemSorters;
 
 
-public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper, ICellProvider, IMEInventoryHandler<IAEStack>
+public class CraftingGridCache implements ICraftingGrid, IGridCacheBulkUpdate, ICraftingProviderHelper, ICellProvider, IMEInventoryHandler<IAEStack>
 {
 
 	private static final ExecutorService CRAFTING_POOL;
+	private static ExecutorService snapshotPool;
 	private static final Comparator<ICraftingPatternDetails> COMPARATOR = new Comparator<ICraftingPatternDetails>(){
 		@Override
 		public int compare( final ICraftingPatternDetails firstDetail, final ICraftingPatternDetails nextDetail )
@@ -125,6 +131,8 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 	private IStorageGrid storageGrid;
 	private IEnergyGrid energyGrid;
 	private boolean updateList = false;
+	private boolean bulkUpdate = false;
+	private boolean patternsChanged = false;
 
 	public CraftingGridCache( final IGrid grid )
 	{
@@ -251,8 +259,33 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		// nothing!
 	}
 
+	@Override
+	public void beginBulkUpdate()
+	{
+		this.bulkUpdate = true;
+	}
+
+	@Override
+	public void endBulkUpdate()
+	{
+		this.bulkUpdate = false;
+
+		if( this.patternsChanged )
+		{
+			this.patternsChanged = false;
+			this.updatePatterns();
+		}
+	}
+
 	private void updatePatterns()
 	{
+		if( this.bulkUpdate )
+		{
+			// rebuilt once the bulk update ends.
+			this.patternsChanged = true;
+			return;
+		}
+
 		final Map<IAEItemStack, ImmutableList<ICraftingPatternDetails>> oldItems = this.craftableItems;
 
 		// erase list.
@@ -504,9 +537,42 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 
 		final CraftingJob job = new CraftingJob( world, grid, actionSrc, slotItem, cb );
 
+		if( job.isSnapshot() )
+		{
+			return getSnapshotPool().submit( job, (ICraftingJob) job );
+		}
+
 		return CRAFTING_POOL.submit( job, (ICraftingJob) job );
 	}
 
+	/**
+	 * snapshot jobs do not wait for the server thread, so they run on a bounded pool instead of the cached one.
+	 */
+	private static synchronized ExecutorService getSnapshotPool()
+	{
+		if( snapshotPool == null )
+		{
+			final ThreadFactory factory = new ThreadFactory(){
+
+				@Override
+				public Thread newThread( final Runnable ar )
+				{
+					final Thread thread = new Thread( ar, "AE Crafting Calculator" );
+					thread.setPriority( Thread.MIN_PRIORITY );
+					return thread;
+				}
+			};
+
+			final int threads = AEConfig.instance.craftingCalculationThreads;
+			final ThreadPoolExecutor pool = new ThreadPoolExecutor( threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), factory );
+			pool.allowCoreThreadTimeOut( true );
+
+			snapshotPool = pool;
+		}
+
+		return snapshotPool;
+	}
+
 	@Override
 	public ICraftingLink submitJob( final ICraftingJob job, final ICraftingRequester requestingMachine, final ICraftingCPU target, final boolean prioritizePower, final BaseActionSource src )
 	{
@@ -515,6 +581,12 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 			return null;
 		}
 
+		if( job instanceof CraftingJob && ( (CraftingJob) job ).isSnapshot() && !this.hasPatterns( (CraftingJob) job ) )
+		{
+			// the plan was calculated against a snapshot, which is outdated by now.
+			return null;
+		}
+
 		CraftingCPUCluster cpuCluster = null;
 
 		if( target instanceof CraftingCPUCluster )
@@ -570,6 +642,19 @@ public class CraftingGridCache implements ICraftingGrid, ICraftingProviderHelper
 		return null;
 	}
 
+	private boolean hasPatterns( final CraftingJob job )
+	{
+		for( final ICraftingPatternDetails details : job.getPatterns() )
+		{
+			if( !this.craftingMethods.containsKey( details ) )
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	@Override
 	public ImmutableSet<ICraftingCPU> getCpus()
 	{
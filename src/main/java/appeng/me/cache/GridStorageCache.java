@@ -29,6 +29,7 @@ import com.google.common.collect.SetMultimap;
 
 import appeng.api.AEApi;
 import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridCacheBulkUpdate;
 import appeng.api.networking.IGridHost;
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridStorage;
@@ -55,7 +56,7 @@ import appeng.me.storage.ItemWatcher;
 import appeng.me.storage.NetworkInventoryHandler;
 
 
-public class GridStorageCache implements IStorageGrid
+public class GridStorageCache implements IStorageGrid, IGridCacheBulkUpdate
 {
 
 	private final IGrid myGrid;
@@ -68,6 +69,11 @@ public class GridStorageCache implements IStorageGrid
 	private final HashMap<IGridNode, IStackWatcher> watchers = new HashMap<IGridNode, IStackWatcher>();
 	private NetworkInventoryHandler<IAEItemStack> myItemNetwork;
 	private NetworkInventoryHandler<IAEFluidStack> myFluidNetwork;
+	// alterations posted right after a cell array change are usually the contents of the changed cells.
+	private boolean cellArrayChanged = false;
+	// collects the cell changes of a bulk update, null outside of one.
+	private CellChangeTracker bulkTracker;
+	private boolean bulkCellArrayUpdate = false;
 
 	public GridStorageCache( final IGrid g )
 	{
@@ -79,6 +85,7 @@ public class GridStorageCache implements IStorageGrid
 	{
 		this.itemMonitor.onTick();
 		this.fluidMonitor.onTick();
+		this.cellArrayChanged = false;
 	}
 
 	@Override
@@ -88,8 +95,8 @@ public class GridStorageCache implements IStorageGrid
 		{
 			final ICellContainer cc = (ICellContainer) machine;
 
-			this.getGrid().postEvent( new MENetworkCellArrayUpdate() );
-			this.removeCellProvider( cc, new CellChangeTracker() ).applyChanges();
+			this.postCellArrayUpdate();
+			this.applyChanges( this.removeCellProvider( cc, this.createTracker() ) );
 			this.inactiveCellProviders.remove( cc );
 		}
 
@@ -112,10 +119,10 @@ public class GridStorageCache implements IStorageGrid
 			final ICellContainer cc = (ICellContainer) machine;
 			this.inactiveCellProviders.add( cc );
 
-			this.getGrid().postEvent( new MENetworkCellArrayUpdate() );
+			this.postCellArrayUpdate();
 			if( node.isActive() )
 			{
-				this.addCellProvider( cc, new CellChangeTracker() ).applyChanges();
+				this.applyChanges( this.addCellProvider( cc, this.createTracker() ) );
 			}
 		}
 
@@ -146,6 +153,58 @@ public class GridStorageCache implements IStorageGrid
 
 	}
 
+	@Override
+	public void beginBulkUpdate()
+	{
+		this.bulkTracker = new CellChangeTracker();
+	}
+
+	@Override
+	public void endBulkUpdate()
+	{
+		final CellChangeTracker tracker = this.bulkTracker;
+		this.bulkTracker = null;
+
+		if( this.bulkCellArrayUpdate )
+		{
+			this.bulkCellArrayUpdate = false;
+			this.getGrid().postEvent( new MENetworkCellArrayUpdate() );
+		}
+
+		if( tracker != null )
+		{
+			tracker.applyChanges();
+		}
+	}
+
+	private void postCellArrayUpdate()
+	{
+		if( this.bulkTracker == null )
+		{
+			this.getGrid().postEvent( new MENetworkCellArrayUpdate() );
+		}
+		else
+		{
+			// one update for the whole bulk, but never hand out the outdated networks meanwhile.
+			this.bulkCellArrayUpdate = true;
+			this.myItemNetwork = null;
+			this.myFluidNetwork = null;
+		}
+	}
+
+	private CellChangeTracker createTracker()
+	{
+		return this.bulkTracker == null ? new CellChangeTracker() : this.bulkTracker;
+	}
+
+	private void applyChanges( final CellChangeTracker tracker )
+	{
+		if( tracker != this.bulkTracker )
+		{
+			tracker.applyChanges();
+		}
+	}
+
 	private CellChangeTracker addCellProvider( final ICellProvider cc, final CellChangeTracker tracker )
 	{
 		if( this.inactiveCellProviders.contains( cc ) )
@@ -203,6 +262,7 @@ public class GridStorageCache implements IStorageGrid
 	@MENetworkEventSubscribe
 	public void cellUpdate( final MENetworkCellArrayUpdate ev )
 	{
+		this.cellArrayChanged = true;
 		this.myItemNetwork = null;
 		this.myFluidNetwork = null;
 
@@ -250,10 +310,10 @@ public class GridStorageCache implements IStorageGrid
 		switch( chan )
 		{
 			case FLUIDS:
-				this.fluidMonitor.postChange( upOrDown > 0, availableItems, src );
+				this.fluidMonitor.postCellChange( upOrDown > 0, availableItems, src );
 				break;
 			case ITEMS:
-				this.itemMonitor.postChange( upOrDown > 0, availableItems, src );
+				this.itemMonitor.postCellChange( upOrDown > 0, availableItems, src );
 				break;
 			default:
 		}
@@ -312,11 +372,25 @@ public class GridStorageCache implements IStorageGrid
 	{
 		if( chan == StorageChannel.ITEMS )
 		{
-			this.itemMonitor.postChange( true, (Iterable<IAEItemStack>) input, src );
+			if( this.cellArrayChanged )
+			{
+				this.itemMonitor.postCellChange( true, (Iterable<IAEItemStack>) input, src );
+			}
+			else
+			{
+				this.itemMonitor.postChange( true, (Iterable<IAEItemStack>) input, src );
+			}
 		}
 		else if( chan == StorageChannel.FLUIDS )
 		{
-			this.fluidMonitor.postChange( true, (Iterable<IAEFluidStack>) input, src );
+			if( this.cellArrayChanged )
+			{
+				this.fluidMonitor.postCellChange( true, (Iterable<IAEFluidStack>) input, src );
+			}
+			else
+			{
+				this.fluidMonitor.postChange( true, (Iterable<IAEFluidStack>) input, src );
+			}
 		}
 	}
 
@@ -19,10 +19,13 @@
 package appeng.me.cache;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -41,8 +44,15 @@ import appeng.api.storage.IMEInventoryHandler;
 import appeng.api.storage.IMEMonitor;
 import appeng.api.storage.IMEMonitorHandlerReceiver;
 import appeng.api.storage.StorageChannel;
+import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.core.AEConfig;
+import appeng.core.AELog;
+import appeng.core.features.AEFeature;
+import appeng.me.helpers.FuzzyTotals;
+import appeng.me.helpers.GenericInterestManager;
+import appeng.me.helpers.InventoryUpdatePublisher;
 import appeng.me.storage.ItemWatcher;
 
 
@@ -50,6 +60,11 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 {
 	@Nonnull
 	private static final Deque<NetworkMonitor<?>> GLOBAL_DEPTH = Lists.newLinkedList();
+	/**
+	 * Number of modulating inject and extract calls running on any monitor.
+	 */
+	@Nonnegative
+	private static int operationDepth = 0;
 
 	@Nonnull
 	private final GridStorageCache myGridCache;
@@ -59,6 +74,19 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 	private final IItemList<T> cachedList;
 	@Nonnull
 	private final Map<IMEMonitorHandlerReceiver<T>, Object> listeners;
+	/**
+	 * Changes merged per source and stack until the end of the tick, null if changes are posted right away.
+	 */
+	@Nullable
+	private Map<BaseActionSource, Map<T, T>> pendingChanges;
+	/**
+	 * Patch the cached list with every diff instead of rebuilding it after each change.
+	 */
+	private final boolean incremental;
+	@Nullable
+	private InventoryUpdatePublisher updatePublisher;
+	@Nullable
+	private FuzzyTotals fuzzyTotals;
 
 	private boolean sendEvent = false;
 	private boolean hasChanged = false;
@@ -66,11 +94,23 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 	private int localDepthSemaphore = 0;
 
 	public NetworkMonitor( final GridStorageCache cache, final StorageChannel chan )
+	{
+		this( cache, chan, (IItemList<T>) chan.createList(), AEConfig.instance != null && AEConfig.instance.isFeatureEnabled( AEFeature.IncrementalStorageList ), AEConfig.instance != null && AEConfig.instance.isFeatureEnabled( AEFeature.BatchedStorageUpdates ) );
+	}
+
+	NetworkMonitor( final GridStorageCache cache, final StorageChannel chan, final IItemList<T> cachedList, final boolean incremental, final boolean batched )
 	{
 		this.myGridCache = cache;
 		this.myChannel = chan;
-		this.cachedList = (IItemList<T>) chan.createList();
+		this.cachedList = cachedList;
 		this.listeners = new HashMap<IMEMonitorHandlerReceiver<T>, Object>();
+		this.incremental = incremental;
+		this.hasChanged = this.incremental;
+
+		if( batched )
+		{
+			this.pendingChanges = new LinkedHashMap<BaseActionSource, Map<T, T>>();
+		}
 	}
 
 	@Override
@@ -94,13 +134,20 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		}
 
 		localDepthSemaphore++;
+		operationDepth++;
 		final T leftover = this.getHandler().extractItems( request, mode, src );
+		operationDepth--;
 		localDepthSemaphore--;
 
 		if( localDepthSemaphore == 0 )
 		{
 			this.monitorDifference( request.copy(), leftover, true, src );
 		}
+		else
+		{
+			// only the outermost call patches the list, its difference already contains this one.
+			this.hasChanged = true;
+		}
 
 		return leftover;
 	}
@@ -158,17 +205,52 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		}
 
 		localDepthSemaphore++;
+		operationDepth++;
 		final T leftover = this.getHandler().injectItems( input, mode, src );
+		operationDepth--;
 		localDepthSemaphore--;
 
 		if( localDepthSemaphore == 0 )
 		{
 			this.monitorDifference( input.copy(), leftover, false, src );
 		}
+		else
+		{
+			// only the outermost call patches the list, its difference already contains this one.
+			this.hasChanged = true;
+		}
 
 		return leftover;
 	}
 
+	/**
+	 * @return the shared terminal update stream of this monitor, or null if it is not an item monitor or sharing is
+	 * disabled.
+	 */
+	@Nullable
+	@SuppressWarnings( "unchecked" )
+	public InventoryUpdatePublisher getUpdatePublisher()
+	{
+		if( this.updatePublisher == null && this.myChannel == StorageChannel.ITEMS && AEConfig.instance.isFeatureEnabled( AEFeature.SharedTerminalUpdates ) )
+		{
+			this.updatePublisher = new InventoryUpdatePublisher( (IMEMonitor<IAEItemStack>) this );
+		}
+
+		return this.updatePublisher;
+	}
+
+	@Nullable
+	@SuppressWarnings( "unchecked" )
+	public FuzzyTotals getFuzzyTotals()
+	{
+		if( this.fuzzyTotals == null && this.myChannel == StorageChannel.ITEMS && AEConfig.instance.isFeatureEnabled( AEFeature.FuzzyEmitterTotals ) )
+		{
+			this.fuzzyTotals = new FuzzyTotals( (IMEMonitor<IAEItemStack>) this );
+		}
+
+		return this.fuzzyTotals;
+	}
+
 	@Override
 	public boolean isPrioritized( final T input )
 	{
@@ -189,7 +271,7 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 	@Nullable
 	@SuppressWarnings( "unchecked" )
-	private IMEInventoryHandler<T> getHandler()
+	IMEInventoryHandler<T> getHandler()
 	{
 		switch( this.myChannel )
 		{
@@ -202,6 +284,11 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		return null;
 	}
 
+	GenericInterestManager<ItemWatcher> getInterestManager()
+	{
+		return this.myGridCache.getInterestManager();
+	}
+
 	private Iterator<Entry<IMEMonitorHandlerReceiver<T>, Object>> getListeners()
 	{
 		return this.listeners.entrySet().iterator();
@@ -222,15 +309,82 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 		if( diff.getStackSize() != 0 )
 		{
-			this.postChangesToListeners( ImmutableList.of( diff ), src );
+			final ImmutableList<T> changes = ImmutableList.of( diff );
+
+			this.updateCachedList( true, changes );
+			this.postChangesToListeners( changes, src );
 		}
 
 		return leftOvers;
 	}
 
+	private void updateCachedList( final boolean add, final Iterable<T> changes )
+	{
+		if( !this.incremental || this.hasChanged )
+		{
+			this.hasChanged = true;
+			return;
+		}
+
+		for( final T changedItem : changes )
+		{
+			if( changedItem == null )
+			{
+				continue;
+			}
+
+			// empty changes only announce craftable or requestable entries, those have to be queried again.
+			if( changedItem.getStackSize() == 0 )
+			{
+				this.hasChanged = true;
+				return;
+			}
+
+			final T entry = changedItem.copy();
+			entry.reset();
+			entry.setStackSize( add ? changedItem.getStackSize() : -changedItem.getStackSize() );
+			this.cachedList.addStorage( entry );
+		}
+	}
+
+	/**
+	 * Compares the patched list with a full rebuild and falls back to the rebuild on any difference.
+	 */
+	private void verifyCachedList()
+	{
+		final IItemList<T> stored = this.getAvailableItems( this.myChannel.createList() );
+		int mismatches = 0;
+
+		for( final T is : stored )
+		{
+			final T cached = this.cachedList.findPrecise( is );
+			final long cachedSize = cached == null ? 0 : cached.getStackSize();
+
+			if( cachedSize != is.getStackSize() || cached == null || cached.isCraftable() != is.isCraftable() )
+			{
+				mismatches++;
+				AELog.debug( "Cached %s storage list differs for %s: cached %d, stored %d", this.myChannel, is, cachedSize, is.getStackSize() );
+			}
+		}
+
+		for( final T cached : this.cachedList )
+		{
+			if( stored.findPrecise( cached ) == null )
+			{
+				mismatches++;
+				AELog.debug( "Cached %s storage list differs for %s: cached %d, stored 0", this.myChannel, cached, cached.getStackSize() );
+			}
+		}
+
+		if( mismatches > 0 )
+		{
+			AELog.warn( "Cached %s storage list was out of sync in %d entries, rebuilding it.", this.myChannel, mismatches );
+			this.rebuildCachedList();
+		}
+	}
+
 	private void notifyListenersOfChange( final Iterable<T> diff, final BaseActionSource src )
 	{
-		this.hasChanged = true;
 		final Iterator<Entry<IMEMonitorHandlerReceiver<T>, Object>> i = this.getListeners();
 
 		while( i.hasNext() )
@@ -250,55 +404,171 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 	private void postChangesToListeners( final Iterable<T> changes, final BaseActionSource src )
 	{
-		this.postChange( true, changes, src );
+		if( GLOBAL_DEPTH.contains( this ) )
+		{
+			return;
+		}
+
+		this.notifyChanges( true, changes, src );
 	}
 
 	protected void postChange( final boolean add, final Iterable<T> changes, final BaseActionSource src )
 	{
 		if( localDepthSemaphore > 0 || GLOBAL_DEPTH.contains( this ) )
 		{
+			if( GLOBAL_DEPTH.contains( this ) )
+			{
+				// changed by a listener, nobody gets told about it, so the list cannot be patched either.
+				this.rebuildCachedList();
+			}
+
 			return;
 		}
 
-		GLOBAL_DEPTH.push( this );
-		localDepthSemaphore++;
+		this.updateCachedList( add, changes );
+		this.notifyChanges( add, changes, src );
+	}
 
-		this.sendEvent = true;
+	/**
+	 * Posts the contents of cells which were added to or removed from the network. The handler is rebuilt for those,
+	 * so the cached list is rebuilt as well instead of being patched.
+	 */
+	void postCellChange( final boolean add, final Iterable<T> changes, final BaseActionSource src )
+	{
+		this.rebuildCachedList();
+		this.postChange( add, changes, src );
+	}
+
+	/**
+	 * Rebuilds the cached list on its next read, and the fuzzy totals on the next tick as they can not follow the
+	 * posted changes either.
+	 */
+	private void rebuildCachedList()
+	{
+		this.hasChanged = true;
+
+		if( this.fuzzyTotals != null )
+		{
+			this.fuzzyTotals.onListUpdate();
+		}
+	}
+
+	private void notifyChanges( final boolean add, final Iterable<T> changes, final BaseActionSource src )
+	{
+		// a change made inside an operation or dispatch of another monitor has to reach it right away, so it can drop
+		// the change when a storage bus forwards it. That monitor posts it as part of its own difference already.
+		if( this.pendingChanges != null && operationDepth == 0 && GLOBAL_DEPTH.isEmpty() )
+		{
+			this.bufferChanges( add, changes, src );
+			return;
+		}
+
+		this.dispatchChanges( add, changes, src );
+	}
 
-		this.notifyListenersOfChange( changes, src );
+	private void bufferChanges( final boolean add, final Iterable<T> changes, final BaseActionSource src )
+	{
+		Map<T, T> merged = this.pendingChanges.get( src );
+		if( merged == null )
+		{
+			this.pendingChanges.put( src, merged = new LinkedHashMap<T, T>() );
+		}
 
 		for( final T changedItem : changes )
 		{
-			T difference = changedItem;
+			if( changedItem == null )
+			{
+				continue;
+			}
 
-			if( !add && changedItem != null )
+			final T existing = merged.get( changedItem );
+
+			if( existing == null )
 			{
-				difference = changedItem.copy();
-				difference.setStackSize( -changedItem.getStackSize() );
+				final T difference = changedItem.copy();
+
+				if( !add )
+				{
+					difference.setStackSize( -changedItem.getStackSize() );
+				}
+
+				merged.put( difference, difference );
+			}
+			else if( add )
+			{
+				existing.add( changedItem );
+			}
+			else
+			{
+				existing.decStackSize( changedItem.getStackSize() );
 			}
+		}
+	}
+
+	/**
+	 * Posts every change buffered during this tick, each stack at most once per source.
+	 */
+	private void flushChanges()
+	{
+		if( this.pendingChanges == null || this.pendingChanges.isEmpty() )
+		{
+			return;
+		}
 
-			if( this.myGridCache.getInterestManager().containsKey( changedItem ) )
+		// changes made while this dispatches are never buffered, see notifyChanges.
+		final Map<BaseActionSource, Map<T, T>> changes = this.pendingChanges;
+		this.pendingChanges = new LinkedHashMap<BaseActionSource, Map<T, T>>();
+
+		for( final Entry<BaseActionSource, Map<T, T>> e : changes.entrySet() )
+		{
+			if( !e.getValue().isEmpty() )
 			{
-				final Collection<ItemWatcher> list = this.myGridCache.getInterestManager().get( changedItem );
+				this.dispatchChanges( true, e.getValue().values(), e.getKey() );
+			}
+		}
+	}
+
+	private void dispatchChanges( final boolean add, final Iterable<T> changes, final BaseActionSource src )
+	{
+		if( GLOBAL_DEPTH.contains( this ) )
+		{
+			return;
+		}
+
+		GLOBAL_DEPTH.push( this );
+		localDepthSemaphore++;
+
+		this.sendEvent = true;
+
+		// receivers get signed differences, removals are negative.
+		final Iterable<T> differences = add ? changes : this.negate( changes );
+
+		this.notifyListenersOfChange( differences, src );
+
+		for( final T difference : differences )
+		{
+			if( this.getInterestManager().containsKey( difference ) )
+			{
+				final Collection<ItemWatcher> list = this.getInterestManager().get( difference );
 
 				if( !list.isEmpty() )
 				{
-					IAEStack fullStack = this.getStorageList().findPrecise( changedItem );
+					IAEStack fullStack = this.getStorageList().findPrecise( difference );
 
 					if( fullStack == null )
 					{
-						fullStack = changedItem.copy();
+						fullStack = difference.copy();
 						fullStack.setStackSize( 0 );
 					}
 
-					this.myGridCache.getInterestManager().enableTransactions();
+					this.getInterestManager().enableTransactions();
 
 					for( final ItemWatcher iw : list )
 					{
 						iw.getHost().onStackChange( this.getStorageList(), fullStack, difference, src, this.getChannel() );
 					}
 
-					this.myGridCache.getInterestManager().disableTransactions();
+					this.getInterestManager().disableTransactions();
 				}
 			}
 		}
@@ -312,6 +582,23 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 		}
 	}
 
+	private List<T> negate( final Iterable<T> changes )
+	{
+		final List<T> negated = new ArrayList<T>();
+
+		for( final T changedItem : changes )
+		{
+			if( changedItem != null )
+			{
+				final T difference = changedItem.copy();
+				difference.setStackSize( -changedItem.getStackSize() );
+				negated.add( difference );
+			}
+		}
+
+		return negated;
+	}
+
 	void forceUpdate()
 	{
 		this.hasChanged = true;
@@ -335,6 +622,23 @@ public class NetworkMonitor<T extends IAEStack<T>> implements IMEMonitor<T>
 
 	void onTick()
 	{
+		this.flushChanges();
+
+		if( this.fuzzyTotals != null )
+		{
+			this.fuzzyTotals.onTick();
+		}
+
+		if( this.updatePublisher != null )
+		{
+			this.updatePublisher.onTick();
+		}
+
+		if( this.incremental && !this.hasChanged && AELog.isDebugLogEnabled() )
+		{
+			this.verifyCachedList();
+		}
+
 		if( this.sendEvent )
 		{
 			this.sendEvent = false;
@@ -51,6 +51,7 @@ import appeng.me.pathfinding.AdHocChannelUpdater;
 import appeng.me.pathfinding.ControllerChannelUpdater;
 import appeng.me.pathfinding.ControllerValidator;
 import appeng.me.pathfinding.IPathItem;
+import appeng.me.pathfinding.IncrementalPathUpdater;
 import appeng.me.pathfinding.PathSegment;
 import appeng.tile.networking.TileController;
 import appeng.util.Platform;
@@ -219,7 +220,7 @@ public class PathGridCache implements IPathingGrid
 			this.blockDense.remove( gridNode );
 		}
 
-		this.repath();
+		this.repathUnlessDetached( gridNode, machine );
 	}
 
 	@Override
@@ -243,7 +244,84 @@ public class PathGridCache implements IPathingGrid
 			this.blockDense.add( gridNode );
 		}
 
-		this.repath();
+		this.repathUnlessDetached( gridNode, machine );
+	}
+
+	/**
+	 * nodes without connections cannot affect any route, their connections will update the channels once they are
+	 * made or broken.
+	 */
+	private void repathUnlessDetached( final IGridNode gridNode, final IGridHost machine )
+	{
+		if( machine instanceof TileController || !gridNode.getConnections().isEmpty() || !this.canUpdateIncrementally() )
+		{
+			this.repath();
+		}
+	}
+
+	/**
+	 * Updates the channels for a connection which was just added to both of its nodes.
+	 */
+	public void connectionAdded( final GridConnection gc )
+	{
+		if( this.canUpdateIncrementally() && new IncrementalPathUpdater( this, this.myGrid.getNodes().size() ).connect( gc ) )
+		{
+			this.incrementalUpdateDone();
+		}
+		else
+		{
+			this.repath();
+		}
+	}
+
+	/**
+	 * Updates the channels for a connection which is about to be removed from both of its nodes.
+	 */
+	public void connectionRemoved( final GridConnection gc )
+	{
+		if( this.canUpdateIncrementally() && new IncrementalPathUpdater( this, this.myGrid.getNodes().size() ).disconnect( gc ) )
+		{
+			this.incrementalUpdateDone();
+		}
+		else
+		{
+			this.repath();
+		}
+	}
+
+	/**
+	 * @return true if some device which requires a channel did not get one.
+	 */
+	public boolean hasStarvedNodes()
+	{
+		for( final IGridNode node : this.requireChannels )
+		{
+			if( !node.meetsChannelRequirements() )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * only a completely pathed, controller driven network can be repaired in place.
+	 */
+	private boolean canUpdateIncrementally()
+	{
+		if( !AEConfig.instance.isFeatureEnabled( AEFeature.IncrementalPathing ) || !AEConfig.instance.isFeatureEnabled( AEFeature.Channels ) )
+		{
+			return false;
+		}
+
+		return this.controllerState == ControllerState.CONTROLLER_ONLINE && !this.recalculateControllerNextTick && !this.updateNetwork && !this.booting && this.active.isEmpty();
+	}
+
+	private void incrementalUpdateDone()
+	{
+		this.setChannelPowerUsage( this.getChannelsByBlocks() / 128.0 );
+		this.achievementPost();
 	}
 
 	@Override
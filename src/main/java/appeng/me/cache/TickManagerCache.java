@@ -20,7 +20,6 @@ package appeng.me.cache;
 
 
 import java.util.HashMap;
-import java.util.PriorityQueue;
 
 import net.minecraft.crash.CrashReport;
 import net.minecraft.crash.CrashReportCategory;
@@ -35,6 +34,7 @@ import appeng.api.networking.ticking.ITickManager;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.me.cache.helpers.TickTracker;
+import appeng.me.cache.helpers.TickWheel;
 
 
 public class TickManagerCache implements ITickManager
@@ -44,8 +44,8 @@ public class TickManagerCache implements ITickManager
 	private final HashMap<IGridNode, TickTracker> alertable = new HashMap<IGridNode, TickTracker>();
 	private final HashMap<IGridNode, TickTracker> sleeping = new HashMap<IGridNode, TickTracker>();
 	private final HashMap<IGridNode, TickTracker> awake = new HashMap<IGridNode, TickTracker>();
-	private final PriorityQueue<TickTracker> upcomingTicks = new PriorityQueue<TickTracker>();
 	private long currentTick = 0;
+	private final TickWheel upcomingTicks = new TickWheel( this.currentTick );
 
 	public TickManagerCache( final IGrid g )
 	{
@@ -81,47 +81,40 @@ public class TickManagerCache implements ITickManager
 		try
 		{
 			this.currentTick++;
-			while( !this.upcomingTicks.isEmpty() )
+			this.upcomingTicks.advance( this.currentTick );
+
+			while( ( tt = this.upcomingTicks.poll() ) != null )
 			{
-				tt = this.upcomingTicks.peek();
 				final int diff = (int) ( this.currentTick - tt.getLastTick() );
-				if( diff >= tt.getCurrentRate() )
+				final TickRateModulation mod = tt.getGridTickable().tickingRequest( tt.getNode(), diff );
+
+				switch( mod )
 				{
-					// remove tt..
-					this.upcomingTicks.poll();
-					final TickRateModulation mod = tt.getGridTickable().tickingRequest( tt.getNode(), diff );
-
-					switch( mod )
-					{
-						case FASTER:
-							tt.setRate( tt.getCurrentRate() - 2 );
-							break;
-						case IDLE:
-							tt.setRate( tt.getRequest().maxTickRate );
-							break;
-						case SAME:
-							break;
-						case SLEEP:
-							this.sleepDevice( tt.getNode() );
-							break;
-						case SLOWER:
-							tt.setRate( tt.getCurrentRate() + 1 );
-							break;
-						case URGENT:
-							tt.setRate( 0 );
-							break;
-						default:
-							break;
-					}
-
-					if( this.awake.containsKey( tt.getNode() ) )
-					{
-						this.addToQueue( tt );
-					}
+					case FASTER:
+						tt.setRate( tt.getCurrentRate() - 2 );
+						break;
+					case IDLE:
+						tt.setRate( tt.getRequest().maxTickRate );
+						break;
+					case SAME:
+						break;
+					case SLEEP:
+						this.sleepDevice( tt.getNode() );
+						break;
+					case SLOWER:
+						tt.setRate( tt.getCurrentRate() + 1 );
+						break;
+					case URGENT:
+						tt.setRate( 0 );
+						break;
+					default:
+						break;
 				}
-				else
+
+				// the device may have been alerted while it was ticking, that schedule wins.
+				if( this.awake.containsKey( tt.getNode() ) && !this.upcomingTicks.isScheduled( tt ) )
 				{
-					return; // done!
+					this.addToQueue( tt );
 				}
 			}
 		}
@@ -137,7 +130,7 @@ public class TickManagerCache implements ITickManager
 	private void addToQueue( final TickTracker tt )
 	{
 		tt.setLastTick( this.currentTick );
-		this.upcomingTicks.add( tt );
+		this.upcomingTicks.schedule( tt );
 	}
 
 	@Override
@@ -147,7 +140,12 @@ public class TickManagerCache implements ITickManager
 		{
 			this.alertable.remove( gridNode );
 			this.sleeping.remove( gridNode );
-			this.awake.remove( gridNode );
+
+			final TickTracker tt = this.awake.remove( gridNode );
+			if( tt != null )
+			{
+				this.upcomingTicks.cancel( tt );
+			}
 		}
 	}
 
@@ -159,7 +157,7 @@ public class TickManagerCache implements ITickManager
 			final TickingRequest tr = ( (IGridTickable) machine ).getTickingRequest( gridNode );
 			if( tr != null )
 			{
-				final TickTracker tt = new TickTracker( tr, gridNode, (IGridTickable) machine, this.currentTick, this );
+				final TickTracker tt = new TickTracker( tr, gridNode, (IGridTickable) machine, this.currentTick );
 
 				if( tr.canBeAlerted )
 				{
@@ -217,8 +215,7 @@ public class TickManagerCache implements ITickManager
 		tt.setCurrentRate( tt.getRequest().minTickRate );
 
 		// prevent dupes and tick build up.
-		this.upcomingTicks.remove( tt );
-		this.upcomingTicks.add( tt );
+		this.upcomingTicks.schedule( tt );
 
 		return true;
 	}
@@ -231,6 +228,7 @@ public class TickManagerCache implements ITickManager
 			final TickTracker gt = this.awake.get( node );
 			this.awake.remove( node );
 			this.sleeping.put( node, gt );
+			this.upcomingTicks.cancel( gt );
 
 			return true;
 		}
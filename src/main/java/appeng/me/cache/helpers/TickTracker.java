@@ -19,39 +19,40 @@
 package appeng.me.cache.helpers;
 
 
-import javax.annotation.Nonnull;
-
 import net.minecraft.crash.CrashReportCategory;
 
 import appeng.api.networking.IGridNode;
 import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.TickingRequest;
 import appeng.api.util.DimensionalCoord;
-import appeng.me.cache.TickManagerCache;
 import appeng.parts.AEBasePart;
 
 
-public class TickTracker implements Comparable<TickTracker>
+public class TickTracker
 {
 
 	private final TickingRequest request;
 	private final IGridTickable gt;
 	private final IGridNode node;
-	private final TickManagerCache host;
 
 	private final long LastFiveTicksTime = 0;
 
 	private long lastTick;
 	private int currentRate;
 
-	public TickTracker( final TickingRequest req, final IGridNode node, final IGridTickable gt, final long currentTick, final TickManagerCache tickManagerCache )
+	// position in the TickWheel.
+	long due;
+	int slot = -1;
+	TickTracker prev;
+	TickTracker next;
+
+	public TickTracker( final TickingRequest req, final IGridNode node, final IGridTickable gt, final long currentTick )
 	{
 		this.request = req;
 		this.gt = gt;
 		this.node = node;
 		this.setCurrentRate( ( req.minTickRate + req.maxTickRate ) / 2 );
 		this.setLastTick( currentTick );
-		this.host = tickManagerCache;
 	}
 
 	public long getAvgNanos()
@@ -74,14 +75,6 @@ public class TickTracker implements Comparable<TickTracker>
 		}
 	}
 
-	@Override
-	public int compareTo( @Nonnull final TickTracker t )
-	{
-		final int nextTick = (int) ( ( this.getLastTick() - this.host.getCurrentTick() ) + this.getCurrentRate() );
-		final int ts_nextTick = (int) ( ( t.getLastTick() - this.host.getCurrentTick() ) + t.getCurrentRate() );
-		return nextTick - ts_nextTick;
-	}
-
 	public void addEntityCrashInfo( final CrashReportCategory crashreportcategory )
 	{
 		if( this.getGridTickable() instanceof AEBasePart )
@@ -0,0 +1,208 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache.helpers;
+
+
+/**
+ * Hierarchical timing wheel for {@link TickTracker}s.
+ *
+ * The near wheel has one slot per tick for the next 256 ticks, the far wheel one slot per 256 ticks for the next 65536
+ * ticks, anything later waits in an overflow list. Trackers are linked into their slot directly, so scheduling and
+ * cancelling never has to search.
+ */
+public class TickWheel
+{
+
+	private static final int BITS = 8;
+	private static final int SIZE = 1 << BITS;
+	private static final int MASK = SIZE - 1;
+
+	private static final int UNSCHEDULED = -1;
+	private static final int FAR_OFFSET = SIZE;
+	private static final int OVERFLOW = 2 * SIZE;
+
+	private final TickTracker[] near = new TickTracker[SIZE];
+	private final TickTracker[] far = new TickTracker[SIZE];
+	private TickTracker overflow;
+
+	private long cursor;
+	private boolean draining;
+
+	public TickWheel( final long currentTick )
+	{
+		this.cursor = currentTick;
+	}
+
+	/**
+	 * Schedules the tracker for lastTick + currentRate, replacing any earlier schedule.
+	 *
+	 * Ticks which are already due run in the tick which is currently drained, or in the next one.
+	 */
+	public void schedule( final TickTracker tt )
+	{
+		this.cancel( tt );
+
+		final long earliest = this.draining ? this.cursor : this.cursor + 1;
+		tt.due = Math.max( earliest, tt.getLastTick() + tt.getCurrentRate() );
+
+		this.insert( tt );
+	}
+
+	public void cancel( final TickTracker tt )
+	{
+		if( tt.slot == UNSCHEDULED )
+		{
+			return;
+		}
+
+		if( tt.prev != null )
+		{
+			tt.prev.next = tt.next;
+		}
+		else if( tt.slot == OVERFLOW )
+		{
+			this.overflow = tt.next;
+		}
+		else if( tt.slot >= FAR_OFFSET )
+		{
+			this.far[tt.slot - FAR_OFFSET] = tt.next;
+		}
+		else
+		{
+			this.near[tt.slot] = tt.next;
+		}
+
+		if( tt.next != null )
+		{
+			tt.next.prev = tt.prev;
+		}
+
+		tt.next = null;
+		tt.prev = null;
+		tt.slot = UNSCHEDULED;
+	}
+
+	public boolean isScheduled( final TickTracker tt )
+	{
+		return tt.slot != UNSCHEDULED;
+	}
+
+	/**
+	 * Moves on to the given tick, which has to follow the last one, and starts draining it.
+	 */
+	public void advance( final long tick )
+	{
+		this.cursor = tick;
+		this.draining = true;
+
+		if( ( tick & MASK ) == 0 )
+		{
+			final long block = tick >>> BITS;
+
+			if( ( block & MASK ) == 0 )
+			{
+				this.cascade( this.overflow );
+				this.overflow = null;
+			}
+
+			final int farSlot = (int) ( block & MASK );
+			final TickTracker due = this.far[farSlot];
+			this.far[farSlot] = null;
+			this.cascade( due );
+		}
+	}
+
+	/**
+	 * @return the next tracker due in the current tick, already removed from the wheel, or null once it is drained.
+	 */
+	public TickTracker poll()
+	{
+		final TickTracker tt = this.near[(int) ( this.cursor & MASK )];
+
+		if( tt == null )
+		{
+			this.draining = false;
+			return null;
+		}
+
+		this.cancel( tt );
+		return tt;
+	}
+
+	private void cascade( TickTracker tt )
+	{
+		while( tt != null )
+		{
+			final TickTracker next = tt.next;
+			tt.next = null;
+			tt.prev = null;
+			tt.slot = UNSCHEDULED;
+			this.insert( tt );
+			tt = next;
+		}
+	}
+
+	private void insert( final TickTracker tt )
+	{
+		final long delta = tt.due - this.cursor;
+
+		if( delta < SIZE )
+		{
+			this.link( tt, (int) ( tt.due & MASK ) );
+		}
+		else if( ( tt.due >>> BITS ) - ( this.cursor >>> BITS ) < SIZE )
+		{
+			this.link( tt, FAR_OFFSET + (int) ( ( tt.due >>> BITS ) & MASK ) );
+		}
+		else
+		{
+			this.link( tt, OVERFLOW );
+		}
+	}
+
+	private void link( final TickTracker tt, final int slot )
+	{
+		final TickTracker head;
+
+		if( slot == OVERFLOW )
+		{
+			head = this.overflow;
+			this.overflow = tt;
+		}
+		else if( slot >= FAR_OFFSET )
+		{
+			head = this.far[slot - FAR_OFFSET];
+			this.far[slot - FAR_OFFSET] = tt;
+		}
+		else
+		{
+			head = this.near[slot];
+			this.near[slot] = tt;
+		}
+
+		tt.slot = slot;
+		tt.prev = null;
+		tt.next = head;
+
+		if( head != null )
+		{
+			head.prev = tt;
+		}
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.helpers;
+
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.Nullable;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.networking.storage.IBaseMonitor;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.IMEMonitorHandlerReceiver;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.util.item.FuzzyBucket;
+
+
+/**
+ * Running totals of fuzzy buckets over the item list of a monitor.
+ *
+ * Every bucket is searched once when it is first subscribed to and on the first {@link #onTick()} after the list was
+ * rebuilt, otherwise its total is updated from the signed changes the monitor posts. Changes posted until that tick are
+ * already part of the rebuilt list and are ignored. Subscribers with the same filter share one bucket.
+ */
+public class FuzzyTotals implements IMEMonitorHandlerReceiver<IAEItemStack>
+{
+
+	private final IMEMonitor<IAEItemStack> monitor;
+	private final Map<FuzzyBucket, Total> totals = new HashMap<FuzzyBucket, Total>();
+	private final Map<Listener, Total> subscriptions = new HashMap<Listener, Total>();
+	private boolean dirty = false;
+
+	public FuzzyTotals( final IMEMonitor<IAEItemStack> monitor )
+	{
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Replaces any earlier subscription of the listener.
+	 *
+	 * @param filter null to count every item.
+	 *
+	 * @return the current total of the bucket.
+	 */
+	public long subscribe( final Listener listener, final Object verificationToken, @Nullable final IAEItemStack filter, final FuzzyMode mode )
+	{
+		this.unsubscribe( listener );
+
+		final FuzzyBucket bucket = new FuzzyBucket( filter, mode );
+		Total total = this.totals.get( bucket );
+
+		if( total == null )
+		{
+			if( this.totals.isEmpty() )
+			{
+				this.monitor.addListener( this, null );
+			}
+
+			total = new Total( bucket );
+			total.value = bucket.getTotal( this.monitor.getStorageList() );
+			this.totals.put( bucket, total );
+
+			// the list may already contain changes which are posted later on.
+			this.dirty = true;
+		}
+
+		total.listeners.put( listener, verificationToken );
+		this.subscriptions.put( listener, total );
+
+		return total.value;
+	}
+
+	public void unsubscribe( final Listener listener )
+	{
+		final Total total = this.subscriptions.remove( listener );
+
+		if( total != null )
+		{
+			total.listeners.remove( listener );
+			this.removeIfUnused( total );
+		}
+	}
+
+	private void removeIfUnused( final Total total )
+	{
+		if( total.listeners.isEmpty() )
+		{
+			this.totals.remove( total.bucket );
+
+			if( this.totals.isEmpty() )
+			{
+				this.monitor.removeListener( this );
+			}
+		}
+	}
+
+	@Override
+	public boolean isValid( final Object verificationToken )
+	{
+		return !this.totals.isEmpty();
+	}
+
+	@Override
+	public void postChange( final IBaseMonitor<IAEItemStack> monitor, final Iterable<IAEItemStack> change, final BaseActionSource actionSource )
+	{
+		if( this.dirty )
+		{
+			return;
+		}
+
+		for( final Object o : this.totals.values().toArray() )
+		{
+			final Total total = (Total) o;
+			long delta = 0;
+
+			for( final IAEItemStack is : change )
+			{
+				delta += total.bucket.count( is ) * is.getStackSize();
+			}
+
+			if( delta != 0 )
+			{
+				total.value += delta;
+				this.notifyListeners( total );
+			}
+		}
+	}
+
+	@Override
+	public void onListUpdate()
+	{
+		this.dirty = true;
+	}
+
+	/**
+	 * Searches every bucket again if the list was rebuilt since the last tick.
+	 */
+	public void onTick()
+	{
+		if( !this.dirty )
+		{
+			return;
+		}
+
+		this.dirty = false;
+
+		for( final Object o : this.totals.values().toArray() )
+		{
+			final Total total = (Total) o;
+
+			total.value = total.bucket.getTotal( this.monitor.getStorageList() );
+			this.notifyListeners( total );
+		}
+	}
+
+	private void notifyListeners( final Total total )
+	{
+		final Iterator<Entry<Listener, Object>> i = total.listeners.entrySet().iterator();
+		while( i.hasNext() )
+		{
+			final Entry<Listener, Object> e = i.next();
+
+			if( e.getKey().isValid( e.getValue() ) )
+			{
+				e.getKey().onTotalChange( total.value );
+			}
+			else
+			{
+				this.subscriptions.remove( e.getKey() );
+				i.remove();
+			}
+		}
+
+		this.removeIfUnused( total );
+	}
+
+	public interface Listener
+	{
+
+		boolean isValid( Object verificationToken );
+
+		void onTotalChange( long total );
+	}
+
+	private static class Total
+	{
+
+		private final FuzzyBucket bucket;
+		private final Map<Listener, Object> listeners = new HashMap<Listener, Object>();
+		private long value;
+
+		private Total( final FuzzyBucket bucket )
+		{
+			this.bucket = bucket;
+		}
+	}
+}
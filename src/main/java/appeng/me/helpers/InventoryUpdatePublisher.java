@@ -0,0 +1,215 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.helpers;
+
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import appeng.api.AEApi;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.networking.storage.IBaseMonitor;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.IMEMonitorHandlerReceiver;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.core.AELog;
+import appeng.core.sync.packets.PacketMEInventoryUpdate;
+
+
+/**
+ * Encodes the inventory updates of a monitor once per tick and shares the packets between every terminal showing it.
+ *
+ * Subscribers compare {@link #getGeneration()} with the generation they sent last. If they are exactly one behind
+ * they send {@link #getDeltaPackets()}, otherwise they missed an update and resend {@link #getFullListPackets()},
+ * which stays cached until the monitor changes. The full list starts with {@link PacketMEInventoryUpdate#FULL_LIST},
+ * so the terminal drops stacks which were removed in the updates it missed.
+ */
+public class InventoryUpdatePublisher implements IMEMonitorHandlerReceiver<IAEItemStack>
+{
+
+	private final IMEMonitor<IAEItemStack> monitor;
+	private final IItemList<IAEItemStack> changes = AEApi.instance().storage().createItemList();
+	private final Map<IMEMonitorHandlerReceiver<IAEItemStack>, Object> subscribers = new HashMap<IMEMonitorHandlerReceiver<IAEItemStack>, Object>();
+
+	private List<PacketMEInventoryUpdate> deltaPackets = Collections.emptyList();
+	private List<PacketMEInventoryUpdate> fullListPackets;
+	private long generation = 0;
+
+	public InventoryUpdatePublisher( final IMEMonitor<IAEItemStack> monitor )
+	{
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Subscribers only get {@link #onListUpdate()} forwarded, changes are picked up from the shared packets.
+	 *
+	 * @return the current generation, everything up to it is part of the full list.
+	 */
+	public long subscribe( final IMEMonitorHandlerReceiver<IAEItemStack> subscriber, final Object verificationToken )
+	{
+		if( this.subscribers.isEmpty() )
+		{
+			this.monitor.addListener( this, null );
+		}
+
+		this.subscribers.put( subscriber, verificationToken );
+		return this.generation;
+	}
+
+	public void unsubscribe( final IMEMonitorHandlerReceiver<IAEItemStack> subscriber )
+	{
+		this.subscribers.remove( subscriber );
+
+		if( this.subscribers.isEmpty() )
+		{
+			this.monitor.removeListener( this );
+			this.changes.resetStatus();
+			this.fullListPackets = null;
+		}
+	}
+
+	public long getGeneration()
+	{
+		return this.generation;
+	}
+
+	public List<PacketMEInventoryUpdate> getDeltaPackets()
+	{
+		return this.deltaPackets;
+	}
+
+	public List<PacketMEInventoryUpdate> getFullListPackets()
+	{
+		if( this.fullListPackets == null )
+		{
+			this.fullListPackets = this.encode( this.monitor.getStorageList(), false );
+		}
+
+		return this.fullListPackets;
+	}
+
+	/**
+	 * Encodes everything which changed since the last call into the next generation.
+	 */
+	public void onTick()
+	{
+		if( this.subscribers.isEmpty() || this.changes.isEmpty() )
+		{
+			return;
+		}
+
+		this.deltaPackets = this.encode( this.changes, true );
+		this.changes.resetStatus();
+		this.generation++;
+	}
+
+	private List<PacketMEInventoryUpdate> encode( final IItemList<IAEItemStack> stacks, final boolean lookup )
+	{
+		final List<PacketMEInventoryUpdate> packets = new ArrayList<PacketMEInventoryUpdate>( 1 );
+
+		try
+		{
+			final IItemList<IAEItemStack> monitorCache = this.monitor.getStorageList();
+			PacketMEInventoryUpdate piu = new PacketMEInventoryUpdate( lookup ? (byte) 0 : PacketMEInventoryUpdate.FULL_LIST );
+
+			for( final IAEItemStack is : stacks )
+			{
+				IAEItemStack send = is;
+
+				if( lookup )
+				{
+					send = monitorCache.findPrecise( is );
+
+					if( send == null )
+					{
+						send = is.copy();
+						send.setStackSize( 0 );
+					}
+				}
+
+				try
+				{
+					piu.appendItem( send );
+				}
+				catch( final BufferOverflowException boe )
+				{
+					packets.add( piu );
+
+					piu = new PacketMEInventoryUpdate();
+					piu.appendItem( send );
+				}
+			}
+
+			packets.add( piu );
+		}
+		catch( final IOException e )
+		{
+			AELog.debug( e );
+		}
+
+		return packets;
+	}
+
+	@Override
+	public boolean isValid( final Object verificationToken )
+	{
+		return !this.subscribers.isEmpty();
+	}
+
+	@Override
+	public void postChange( final IBaseMonitor<IAEItemStack> monitor, final Iterable<IAEItemStack> change, final BaseActionSource actionSource )
+	{
+		for( final IAEItemStack is : change )
+		{
+			this.changes.add( is );
+		}
+
+		this.fullListPackets = null;
+	}
+
+	@Override
+	public void onListUpdate()
+	{
+		this.fullListPackets = null;
+
+		final Iterator<Entry<IMEMonitorHandlerReceiver<IAEItemStack>, Object>> i = this.subscribers.entrySet().iterator();
+		while( i.hasNext() )
+		{
+			final Entry<IMEMonitorHandlerReceiver<IAEItemStack>, Object> o = i.next();
+			final IMEMonitorHandlerReceiver<IAEItemStack> receiver = o.getKey();
+
+			if( receiver.isValid( o.getValue() ) )
+			{
+				receiver.onListUpdate();
+			}
+			else
+			{
+				i.remove();
+			}
+		}
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.pathfinding;
+
+
+import java.util.EnumSet;
+
+import appeng.api.networking.GridFlags;
+import appeng.me.GridConnection;
+import appeng.me.GridNode;
+import appeng.me.cache.PathGridCache;
+import appeng.tile.networking.TileController;
+
+
+/**
+ * Repairs the channel assignment of a fully pathed network after a single connection was added or removed, instead
+ * of throwing away every assignment.
+ *
+ * Only connections which attach or detach a leaf node are handled, together with redundant connections which do not
+ * carry any channels. Everything else returns false, in which case the caller has to fall back to a full repath.
+ */
+public class IncrementalPathUpdater
+{
+
+	private final PathGridCache pgc;
+	private final int limit;
+
+	public IncrementalPathUpdater( final PathGridCache myPGC, final int nodes )
+	{
+		this.pgc = myPGC;
+		// every route alternates between nodes and connections, anything longer has to be a loop.
+		this.limit = nodes * 2 + 2;
+	}
+
+	/**
+	 * @param gc connection which was just added to both of its nodes.
+	 *
+	 * @return false if the network has to be repathed.
+	 */
+	public boolean connect( final GridConnection gc )
+	{
+		final GridNode a = (GridNode) gc.a();
+		final GridNode b = (GridNode) gc.b();
+
+		final boolean aIsLeaf = this.isLeaf( a );
+		final boolean bIsLeaf = this.isLeaf( b );
+
+		if( aIsLeaf == bIsLeaf )
+		{
+			// a new loop might give starved devices a route, only a full repath can find that one.
+			if( aIsLeaf || this.pgc.hasStarvedNodes() )
+			{
+				return false;
+			}
+
+			// otherwise the existing routes stay valid and the new connection just idles.
+			final int routeA = this.routeLength( a );
+			final int routeB = this.routeLength( b );
+
+			if( routeA < 0 || routeB < 0 )
+			{
+				return false;
+			}
+
+			gc.setControllerRoute( routeA <= routeB ? a : b, true );
+			gc.finalizeChannels();
+			return true;
+		}
+
+		final GridNode leaf = aIsLeaf ? a : b;
+		final GridNode parent = aIsLeaf ? b : a;
+
+		final EnumSet<GridFlags> flags = leaf.getFlags();
+		if( flags.contains( GridFlags.MULTIBLOCK ) || flags.contains( GridFlags.COMPRESSED_CHANNEL ) )
+		{
+			return false;
+		}
+
+		// a preferred leaf can take over the route of its parent.
+		if( parent.getControllerRoute() == gc )
+		{
+			return false;
+		}
+
+		gc.setControllerRoute( parent, true );
+		leaf.setControllerRoute( gc, true );
+
+		final int length = this.routeLength( leaf );
+		if( length < 0 )
+		{
+			return false;
+		}
+
+		if( flags.contains( GridFlags.REQUIRE_CHANNEL ) && this.canRoute( leaf ) )
+		{
+			this.changeChannels( leaf, 1 );
+			this.pgc.setChannelsInUse( this.pgc.getChannelsInUse() + 1 );
+			this.pgc.setChannelsByBlocks( this.pgc.getChannelsByBlocks() + length );
+		}
+
+		this.finalizeRoute( leaf );
+		return true;
+	}
+
+	/**
+	 * @param gc connection which is about to be removed from both of its nodes.
+	 *
+	 * @return false if the network has to be repathed.
+	 */
+	public boolean disconnect( final GridConnection gc )
+	{
+		final GridNode a = (GridNode) gc.a();
+		final GridNode b = (GridNode) gc.b();
+
+		final int channels = gc.getUsedChannels();
+		final boolean aIsLeaf = this.isLeaf( a );
+		final boolean bIsLeaf = this.isLeaf( b );
+
+		if( aIsLeaf == bIsLeaf )
+		{
+			// nothing is routed through an idle connection, anything else strands whatever was behind it.
+			return !aIsLeaf && channels == 0;
+		}
+
+		final GridNode leaf = aIsLeaf ? a : b;
+		final GridNode parent = aIsLeaf ? b : a;
+
+		if( gc.getControllerRoute() != parent || leaf.getControllerRoute() != gc )
+		{
+			return false;
+		}
+
+		if( channels > 0 )
+		{
+			final int length = this.routeLength( parent );
+			if( length < 0 )
+			{
+				return false;
+			}
+
+			this.changeChannels( parent, -channels );
+			this.pgc.setChannelsInUse( this.pgc.getChannelsInUse() - channels );
+			this.pgc.setChannelsByBlocks( this.pgc.getChannelsByBlocks() - channels * ( length + 2 ) );
+		}
+
+		leaf.setControllerRoute( gc, true );
+		gc.setControllerRoute( parent, true );
+		leaf.finalizeChannels();
+		gc.finalizeChannels();
+		this.finalizeRoute( parent );
+		return true;
+	}
+
+	private boolean isLeaf( final GridNode node )
+	{
+		return node.getConnections().size() == 1 && !( node.getMachine() instanceof TileController );
+	}
+
+	/**
+	 * @return the number of path items from start up to the controller, or -1 if start is not routed to a controller.
+	 */
+	private int routeLength( final IPathItem start )
+	{
+		IPathItem last = null;
+		IPathItem pi = start;
+		int length = 0;
+
+		while( pi != null )
+		{
+			if( ++length > this.limit )
+			{
+				return -1;
+			}
+
+			last = pi;
+			pi = pi.getControllerRoute();
+		}
+
+		if( last instanceof GridConnection && ( (GridConnection) last ).a().getMachine() instanceof TileController )
+		{
+			return length;
+		}
+
+		if( last instanceof GridNode && ( (GridNode) last ).getMachine() instanceof TileController )
+		{
+			return length;
+		}
+
+		return -1;
+	}
+
+	private boolean canRoute( final IPathItem start )
+	{
+		IPathItem pi = start;
+		while( pi != null )
+		{
+			if( !pi.canSupportMoreChannels() )
+			{
+				return false;
+			}
+
+			pi = pi.getControllerRoute();
+		}
+
+		return true;
+	}
+
+	private void changeChannels( final IPathItem start, final int channels )
+	{
+		IPathItem pi = start;
+		while( pi != null )
+		{
+			pi.incrementChannelCount( channels );
+			pi = pi.getControllerRoute();
+		}
+	}
+
+	private void finalizeRoute( final IPathItem start )
+	{
+		IPathItem pi = start;
+		while( pi != null )
+		{
+			pi.finalizeChannels();
+			pi = pi.getControllerRoute();
+		}
+	}
+}
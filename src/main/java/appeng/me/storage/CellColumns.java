@@ -0,0 +1,353 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.storage;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
+import net.minecraft.util.ResourceLocation;
+
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * Columnar layout for the contents of a storage cell, and the #/@ slot layout it is stored alongside.
+ *
+ * Every slot is stored as an entry in the item, damage and count arrays. Items are referenced by their index in a per
+ * cell dictionary of registry names, so cells survive changes to the numeric item ids. Tag compounds are kept in a side
+ * table keyed by slot. Decoding a slot only needs a registry lookup per distinct item, instead of reading a whole item
+ * compound.
+ *
+ * The #/@ slots are always written, so versions without ColumnarCellStorage still read the cell. Those versions do not
+ * update the columns, which are only used as long as they {@link #matches} the slots.
+ */
+class CellColumns
+{
+
+	private static final String ITEM_NAMES = "cn";
+	private static final String ITEM_INDEX = "ci";
+	private static final String ITEM_DAMAGE = "cd";
+	private static final String ITEM_COUNTS = "cc";
+	private static final String ITEM_TAGS = "ct";
+
+	private final NBTTagCompound data;
+	private final List<String> names;
+	private final Map<String, Integer> nameIndex = new HashMap<String, Integer>();
+	private Item[] resolved;
+	private boolean namesChanged;
+	private int[] index;
+	private int[] damage;
+	private int[] counts;
+	private final NBTTagCompound tags;
+
+	private CellColumns( final NBTTagCompound data, final List<String> names, final int[] index, final int[] damage, final int[] counts, final NBTTagCompound tags )
+	{
+		this.data = data;
+		this.names = names;
+		this.resolved = new Item[names.size()];
+		this.index = index;
+		this.damage = damage;
+		this.counts = counts;
+		this.tags = tags;
+
+		for( int x = 0; x < names.size(); x++ )
+		{
+			this.nameIndex.put( names.get( x ), x );
+		}
+	}
+
+	static boolean isPresent( final NBTTagCompound data )
+	{
+		return data.hasKey( ITEM_NAMES );
+	}
+
+	/**
+	 * @return the columns stored in data, or null if they are missing or do not line up.
+	 */
+	static CellColumns read( final NBTTagCompound data )
+	{
+		if( !isPresent( data ) )
+		{
+			return null;
+		}
+
+		final NBTTagList list = data.getTagList( ITEM_NAMES, 8 );
+		final List<String> names = new ArrayList<String>( list.tagCount() );
+		for( int x = 0; x < list.tagCount(); x++ )
+		{
+			names.add( list.getStringTagAt( x ) );
+		}
+
+		final int[] index = data.getIntArray( ITEM_INDEX );
+		final int[] damage = data.getIntArray( ITEM_DAMAGE );
+		final int[] counts = data.getIntArray( ITEM_COUNTS );
+
+		if( index.length != damage.length || index.length != counts.length )
+		{
+			return null;
+		}
+
+		for( final int i : index )
+		{
+			if( i < 0 || i >= names.size() )
+			{
+				return null;
+			}
+		}
+
+		return new CellColumns( data, names, index, damage, counts, data.getCompoundTag( ITEM_TAGS ) );
+	}
+
+	/**
+	 * @return empty columns, which replace the columns stored in data once they are written.
+	 */
+	static CellColumns create( final NBTTagCompound data, final int size )
+	{
+		final CellColumns columns = new CellColumns( data, new ArrayList<String>(), new int[size], new int[size], new int[size], new NBTTagCompound() );
+		columns.namesChanged = true;
+		return columns;
+	}
+
+	static void remove( final NBTTagCompound data )
+	{
+		data.removeTag( ITEM_NAMES );
+		data.removeTag( ITEM_INDEX );
+		data.removeTag( ITEM_DAMAGE );
+		data.removeTag( ITEM_COUNTS );
+		data.removeTag( ITEM_TAGS );
+	}
+
+	/**
+	 * @return the stack stored in the #/@ slot layout, or null if there is none.
+	 */
+	static ItemStack readSlot( final NBTTagCompound data, final String key, final String countKey )
+	{
+		final ItemStack t = ItemStack.loadItemStackFromNBT( data.getCompoundTag( key ) );
+		if( t != null )
+		{
+			t.stackSize = data.getInteger( countKey );
+		}
+
+		return t;
+	}
+
+	/**
+	 * Stores the stack in the #/@ slot layout, reusing the item compound already there.
+	 */
+	static void writeSlot( final NBTTagCompound data, final String key, final String countKey, final IAEItemStack v )
+	{
+		final NBTBase c = data.getTag( key );
+		if( c instanceof NBTTagCompound )
+		{
+			v.writeToNBT( (NBTTagCompound) c );
+		}
+		else
+		{
+			final NBTTagCompound g = new NBTTagCompound();
+			v.writeToNBT( g );
+			data.setTag( key, g );
+		}
+
+		data.setInteger( countKey, (int) v.getStackSize() );
+	}
+
+	static void removeSlot( final NBTTagCompound data, final String key, final String countKey )
+	{
+		data.removeTag( key );
+		data.removeTag( countKey );
+	}
+
+	/**
+	 * Compares each slot with the id, damage and count of its #/@ slot. Reading those does not build a stack.
+	 */
+	boolean matches( final String[] keys, final String[] countKeys, final int size )
+	{
+		if( size != this.index.length )
+		{
+			return false;
+		}
+
+		for( int x = 0; x < size; x++ )
+		{
+			final Item item = this.resolve( this.index[x] );
+			final NBTTagCompound slot = this.data.getCompoundTag( keys[x] );
+
+			if( item == null || slot.getShort( "id" ) != (short) Item.REGISTRY.getIDForObject( item ) || slot.getShort( "Damage" ) != (short) this.damage[x] || this.data.getInteger( countKeys[x] ) != this.counts[x] )
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	int size()
+	{
+		return this.index.length;
+	}
+
+	/**
+	 * @return the stack in the slot, or null if its item does not exist anymore.
+	 */
+	ItemStack getStack( final int slot, final String key )
+	{
+		final Item item = this.resolve( this.index[slot] );
+		if( item == null )
+		{
+			return null;
+		}
+
+		final ItemStack t = new ItemStack( item, this.counts[slot], this.damage[slot] );
+		if( this.tags.hasKey( key ) )
+		{
+			t.setTagCompound( this.tags.getCompoundTag( key ) );
+		}
+
+		return t;
+	}
+
+	/**
+	 * Sets the slot, which may be the one right after the last.
+	 */
+	void setStack( final int slot, final String key, final IAEItemStack v )
+	{
+		if( slot == this.index.length )
+		{
+			this.resize( slot + 1 );
+		}
+
+		this.index[slot] = this.indexOf( v.getItem() );
+		this.damage[slot] = v.getItemDamage();
+		this.counts[slot] = (int) v.getStackSize();
+
+		if( v.hasTagCompound() )
+		{
+			this.tags.setTag( key, (NBTTagCompound) v.getTagCompound() );
+		}
+		else
+		{
+			this.tags.removeTag( key );
+		}
+	}
+
+	void setCount( final int slot, final int count )
+	{
+		this.counts[slot] = count;
+	}
+
+	/**
+	 * Drops the last slot, its name stays in the dictionary until the next full save.
+	 */
+	void removeLast( final String key )
+	{
+		this.tags.removeTag( key );
+		this.resize( this.index.length - 1 );
+	}
+
+	/**
+	 * Drops every slot from size on, their tags have to be removed separately.
+	 */
+	void setSize( final int size )
+	{
+		if( size != this.index.length )
+		{
+			this.resize( size );
+		}
+	}
+
+	void write()
+	{
+		if( this.namesChanged )
+		{
+			final NBTTagList list = new NBTTagList();
+			for( final String name : this.names )
+			{
+				list.appendTag( new NBTTagString( name ) );
+			}
+
+			this.data.setTag( ITEM_NAMES, list );
+			this.namesChanged = false;
+		}
+
+		this.data.setIntArray( ITEM_INDEX, this.index );
+		this.data.setIntArray( ITEM_DAMAGE, this.damage );
+		this.data.setIntArray( ITEM_COUNTS, this.counts );
+
+		if( this.tags.hasNoTags() )
+		{
+			this.data.removeTag( ITEM_TAGS );
+		}
+		else
+		{
+			this.data.setTag( ITEM_TAGS, this.tags );
+		}
+	}
+
+	private Item resolve( final int i )
+	{
+		Item item = this.resolved[i];
+		if( item == null )
+		{
+			item = Item.REGISTRY.getObject( new ResourceLocation( this.names.get( i ) ) );
+			this.resolved[i] = item;
+		}
+
+		return item;
+	}
+
+	private int indexOf( final Item item )
+	{
+		final String name = Item.REGISTRY.getNameForObject( item ).toString();
+		final Integer i = this.nameIndex.get( name );
+		if( i != null )
+		{
+			return i;
+		}
+
+		final int added = this.names.size();
+		this.names.add( name );
+		this.nameIndex.put( name, added );
+		this.namesChanged = true;
+
+		if( added == this.resolved.length )
+		{
+			this.resolved = Arrays.copyOf( this.resolved, Math.max( 4, added * 2 ) );
+		}
+		this.resolved[added] = item;
+
+		return added;
+	}
+
+	private void resize( final int size )
+	{
+		this.index = Arrays.copyOf( this.index, size );
+		this.damage = Arrays.copyOf( this.damage, size );
+		this.counts = Arrays.copyOf( this.counts, size );
+	}
+}
@@ -20,11 +20,12 @@ package appeng.me.storage;
 
 
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import net.minecraft.inventory.IInventory;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NBTBase;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.oredict.OreDictionary;
 
@@ -41,6 +42,8 @@ import appeng.api.storage.ISaveProvider;
 import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.api.storage.data.IItemList;
+import appeng.core.AEConfig;
+import appeng.core.features.AEFeature;
 import appeng.util.Platform;
 import appeng.util.item.AEItemStack;
 
@@ -68,13 +71,28 @@ public class CellInventory implements ICellInventory
 	private ItemStack i;
 	private IStorageCell cellType;
 
+	private final boolean incremental;
+	private final boolean columnar;
+	// columns the contents are stored in, null while they use the #/@ slots.
+	private CellColumns columns;
+	// slot of every stored stack, null until the slots are known to be packed.
+	private Map<IAEItemStack, Integer> slotIndex;
+	private IAEItemStack[] slotStacks;
+
 	protected CellInventory( final NBTTagCompound data, final ISaveProvider container )
 	{
 		this.tagCompound = data;
 		this.container = container;
+		this.incremental = false;
+		this.columnar = false;
 	}
 
 	private CellInventory( final ItemStack o, final ISaveProvider container ) throws AppEngException
+	{
+		this( o, container, AEConfig.instance != null && AEConfig.instance.isFeatureEnabled( AEFeature.IncrementalCellSaving ), AEConfig.instance != null && AEConfig.instance.isFeatureEnabled( AEFeature.ColumnarCellStorage ) );
+	}
+
+	CellInventory( final ItemStack o, final ISaveProvider container, final boolean incremental, final boolean columnar ) throws AppEngException
 	{
 		if( itemSlots == null )
 		{
@@ -127,6 +145,8 @@ public class CellInventory implements ICellInventory
 		this.storedItems = this.tagCompound.getShort( ITEM_TYPE_TAG );
 		this.storedItemCount = this.tagCompound.getInteger( ITEM_COUNT_TAG );
 		this.cellItems = null;
+		this.incremental = incremental;
+		this.columnar = columnar;
 	}
 
 	public static IMEInventoryHandler getCell( final ItemStack o, final ISaveProvider container2 )
@@ -228,7 +248,7 @@ public class CellInventory implements ICellInventory
 		}
 
 		final IAEItemStack l = this.getCellItems().findPrecise( input );
-		if( l != null )
+		if( l != null && l.getStackSize() > 0 )
 		{
 			final long remainingItemSlots = this.getRemainingItemCount();
 			if( remainingItemSlots < 0 )
@@ -244,7 +264,7 @@ public class CellInventory implements ICellInventory
 				{
 					l.setStackSize( l.getStackSize() + remainingItemSlots );
 					this.updateItemCount( remainingItemSlots );
-					this.saveChanges();
+					this.saveChanges( l );
 				}
 				return r;
 			}
@@ -254,7 +274,7 @@ public class CellInventory implements ICellInventory
 				{
 					l.setStackSize( l.getStackSize() + input.getStackSize() );
 					this.updateItemCount( input.getStackSize() );
-					this.saveChanges();
+					this.saveChanges( l );
 				}
 				return null;
 			}
@@ -274,10 +294,11 @@ public class CellInventory implements ICellInventory
 						final ItemStack toWrite = Platform.cloneItemStack( sharedItemStack );
 						toWrite.stackSize = remainingItemCount;
 
-						this.cellItems.add( AEItemStack.create( toWrite ) );
+						final IAEItemStack written = AEItemStack.create( toWrite );
+						this.cellItems.add( written );
 						this.updateItemCount( toWrite.stackSize );
 
-						this.saveChanges();
+						this.saveChanges( this.cellItems.findPrecise( written ) );
 					}
 					return AEItemStack.create( toReturn );
 				}
@@ -286,7 +307,7 @@ public class CellInventory implements ICellInventory
 				{
 					this.updateItemCount( input.getStackSize() );
 					this.cellItems.add( input );
-					this.saveChanges();
+					this.saveChanges( this.cellItems.findPrecise( input ) );
 				}
 
 				return null;
@@ -309,7 +330,7 @@ public class CellInventory implements ICellInventory
 		IAEItemStack Results = null;
 
 		final IAEItemStack l = this.getCellItems().findPrecise( request );
-		if( l != null )
+		if( l != null && l.getStackSize() > 0 )
 		{
 			Results = l.copy();
 
@@ -320,7 +341,7 @@ public class CellInventory implements ICellInventory
 				{
 					this.updateItemCount( -l.getStackSize() );
 					l.setStackSize( 0 );
-					this.saveChanges();
+					this.saveChanges( l );
 				}
 			}
 			else
@@ -330,7 +351,7 @@ public class CellInventory implements ICellInventory
 				{
 					l.setStackSize( l.getStackSize() - size );
 					this.updateItemCount( -size );
-					this.saveChanges();
+					this.saveChanges( l );
 				}
 			}
 		}
@@ -342,48 +363,147 @@ public class CellInventory implements ICellInventory
 	{
 		if( this.cellItems == null )
 		{
-			this.cellItems = AEApi.instance().storage().createItemList();
+			this.cellItems = this.createItemList();
 			this.loadCellItems();
 		}
 
 		return this.cellItems;
 	}
 
+	IItemList<IAEItemStack> createItemList()
+	{
+		return AEApi.instance().storage().createItemList();
+	}
+
 	private void updateItemCount( final long delta )
 	{
 		this.storedItemCount += delta;
 		this.tagCompound.setInteger( ITEM_COUNT_TAG, this.storedItemCount );
 	}
 
+	/**
+	 * Only rewrites the slot of the changed stack, as long as the slots are packed and the columns are present exactly
+	 * when they are enabled. Otherwise everything is written by {@link #saveChanges()}.
+	 */
+	private void saveChanges( final IAEItemStack changed )
+	{
+		if( this.slotIndex == null || this.columnar != ( this.columns != null ) )
+		{
+			this.saveChanges();
+			return;
+		}
+
+		final Integer slot = this.slotIndex.get( changed );
+
+		if( slot == null )
+		{
+			if( changed.getStackSize() > 0 )
+			{
+				this.writeSlot( this.storedItems, changed );
+				this.storedItems++;
+				this.tagCompound.setShort( ITEM_TYPE_TAG, this.storedItems );
+			}
+		}
+		else if( changed.getStackSize() > 0 )
+		{
+			if( this.columns != null )
+			{
+				this.columns.setCount( slot, (int) changed.getStackSize() );
+			}
+
+			this.tagCompound.setInteger( itemSlotCount[slot], (int) changed.getStackSize() );
+		}
+		else
+		{
+			// keep the slots packed by moving the last one into the gap.
+			final int last = this.storedItems - 1;
+
+			this.slotIndex.remove( changed );
+			if( slot != last )
+			{
+				this.writeSlot( slot, this.slotStacks[last] );
+			}
+
+			this.slotStacks[last] = null;
+			if( this.columns != null )
+			{
+				this.columns.removeLast( itemSlots[last] );
+			}
+
+			CellColumns.removeSlot( this.tagCompound, itemSlots[last], itemSlotCount[last] );
+
+			this.storedItems--;
+			if( this.storedItems == 0 )
+			{
+				this.tagCompound.removeTag( ITEM_TYPE_TAG );
+			}
+			else
+			{
+				this.tagCompound.setShort( ITEM_TYPE_TAG, this.storedItems );
+			}
+		}
+
+		if( this.columns != null )
+		{
+			this.columns.write();
+		}
+
+		if( this.storedItemCount == 0 )
+		{
+			this.tagCompound.removeTag( ITEM_COUNT_TAG );
+		}
+
+		if( this.container != null )
+		{
+			this.container.saveChanges( this );
+		}
+	}
+
+	private void writeSlot( final int slot, final IAEItemStack v )
+	{
+		if( this.columns != null )
+		{
+			this.columns.setStack( slot, itemSlots[slot], v );
+		}
+
+		CellColumns.writeSlot( this.tagCompound, itemSlots[slot], itemSlotCount[slot], v );
+
+		this.slotStacks[slot] = v;
+		this.slotIndex.put( v, slot );
+	}
+
 	void saveChanges()
 	{
 		// cellItems.clean();
 		int itemCount = 0;
 
+		if( this.incremental )
+		{
+			this.slotIndex = new IdentityHashMap<IAEItemStack, Integer>();
+			this.slotStacks = new IAEItemStack[itemSlots.length];
+		}
+
+		final CellColumns newColumns = this.columnar ? CellColumns.create( this.tagCompound, this.cellItems.size() ) : null;
+
 		// add new pretty stuff...
 		int x = 0;
 		for( final IAEItemStack v : this.cellItems )
 		{
 			itemCount += v.getStackSize();
 
-			final NBTBase c = this.tagCompound.getTag( itemSlots[x] );
-			if( c instanceof NBTTagCompound )
+			if( newColumns != null )
 			{
-				v.writeToNBT( (NBTTagCompound) c );
+				newColumns.setStack( x, itemSlots[x], v );
 			}
-			else
+
+			CellColumns.writeSlot( this.tagCompound, itemSlots[x], itemSlotCount[x], v );
+
+			if( this.incremental )
 			{
-				final NBTTagCompound g = new NBTTagCompound();
-				v.writeToNBT( g );
-				this.tagCompound.setTag( itemSlots[x], g );
+				this.slotStacks[x] = v;
+				this.slotIndex.put( v, x );
 			}
 
-			/*
-			 * NBTBase tagSlotCount = tagCompound.getTag( itemSlotCount[x] ); if ( tagSlotCount instanceof
-			 * NBTTagInt ) ((NBTTagInt) tagSlotCount).data = (int) v.getStackSize(); else
-			 */
-			this.tagCompound.setInteger( itemSlotCount[x], (int) v.getStackSize() );
-
 			x++;
 		}
 
@@ -418,11 +538,22 @@ public class CellInventory implements ICellInventory
 			this.tagCompound.setInteger( ITEM_COUNT_TAG, itemCount );
 		}
 
-		// clean any old crusty stuff...
+		// clean any old crusty stuff, the slots are always kept, the columns only while they are enabled.
+		if( newColumns != null )
+		{
+			newColumns.setSize( x );
+			newColumns.write();
+		}
+		else if( this.columns != null || CellColumns.isPresent( this.tagCompound ) )
+		{
+			CellColumns.remove( this.tagCompound );
+		}
+
+		this.columns = newColumns;
+
 		for( ; x < oldStoredItems && x < this.maxItemTypes; x++ )
 		{
-			this.tagCompound.removeTag( itemSlots[x] );
-			this.tagCompound.removeTag( itemSlotCount[x] );
+			CellColumns.removeSlot( this.tagCompound, itemSlots[x], itemSlotCount[x] );
 		}
 
 		if( this.container != null )
@@ -435,27 +566,73 @@ public class CellInventory implements ICellInventory
 	{
 		if( this.cellItems == null )
 		{
-			this.cellItems = AEApi.instance().storage().createItemList();
+			this.cellItems = this.createItemList();
 		}
 
 		this.cellItems.resetStatus(); // clears totals and stuff.
 
 		final int types = (int) this.getStoredItemTypes();
 
+		// slots can only be updated one by one if every one of them holds a distinct stack.
+		Map<IAEItemStack, Integer> index = null;
+		if( this.incremental && types <= itemSlots.length )
+		{
+			index = new IdentityHashMap<IAEItemStack, Integer>();
+			this.slotStacks = new IAEItemStack[itemSlots.length];
+		}
+
+		// the columns are only used while they agree with the slots, the next full save adds or drops them as configured.
+		CellColumns stored = CellColumns.read( this.tagCompound );
+		if( stored != null && !stored.matches( itemSlots, itemSlotCount, types ) )
+		{
+			// slots changed by a version without the columns, those have to be replaced by a full save.
+			stored = null;
+			index = null;
+		}
+
 		for( int x = 0; x < types; x++ )
 		{
-			final ItemStack t = ItemStack.loadItemStackFromNBT( this.tagCompound.getCompoundTag( itemSlots[x] ) );
-			if( t != null )
+			final ItemStack t;
+			if( stored != null )
+			{
+				t = stored.getStack( x, itemSlots[x] );
+			}
+			else
 			{
-				t.stackSize = this.tagCompound.getInteger( itemSlotCount[x] );
+				t = CellColumns.readSlot( this.tagCompound, itemSlots[x], itemSlotCount[x] );
+			}
 
+			if( t != null )
+			{
 				if( t.stackSize > 0 )
 				{
-					this.cellItems.add( AEItemStack.create( t ) );
+					final IAEItemStack loaded = AEItemStack.create( t );
+					this.cellItems.add( loaded );
+
+					if( index != null )
+					{
+						final IAEItemStack record = this.cellItems.findPrecise( loaded );
+						if( index.containsKey( record ) )
+						{
+							index = null;
+						}
+						else
+						{
+							index.put( record, x );
+							this.slotStacks[x] = record;
+						}
+					}
+
+					continue;
 				}
 			}
+
+			index = null;
 		}
 
+		this.slotIndex = index;
+		this.columns = stored;
+
 		// cellItems.clean();
 	}
 
@@ -21,9 +21,12 @@ package appeng.me.storage;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
 
@@ -40,6 +43,8 @@ import appeng.api.storage.IMEInventoryHandler;
 import appeng.api.storage.StorageChannel;
 import appeng.api.storage.data.IAEStack;
 import appeng.api.storage.data.IItemList;
+import appeng.core.AEConfig;
+import appeng.core.features.AEFeature;
 import appeng.me.cache.SecurityCache;
 import appeng.util.ItemSorters;
 
@@ -62,6 +67,10 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 	private final SecurityCache security;
 	// final TreeMultimap<Integer, IMEInventoryHandler<T>> priorityInventory;
 	private final NavigableMap<Integer, List<IMEInventoryHandler<T>>> priorityInventory;
+	// handlers which were seen holding, accepting or being partitioned for a type, null if indexing is disabled.
+	// the whole handler is rebuilt on every cell array update, so this never outlives the cells it points to.
+	private final Map<T, List<IMEInventoryHandler<T>>> routes;
+	private final Map<IMEInventoryHandler<T>, Integer> handlerPriority;
 	private int myPass = 0;
 
 	public NetworkInventoryHandler( final StorageChannel chan, final SecurityCache security )
@@ -71,6 +80,17 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		this.priorityInventory = new TreeMap<Integer, List<IMEInventoryHandler<T>>>( PRIORITY_SORTER ); // TreeMultimap.create(
 																										// prioritySorter,
 																										// hashSorter );
+
+		if( AEConfig.instance != null && AEConfig.instance.isFeatureEnabled( AEFeature.IndexedNetworkStorage ) )
+		{
+			this.routes = new HashMap<T, List<IMEInventoryHandler<T>>>();
+			this.handlerPriority = new IdentityHashMap<IMEInventoryHandler<T>, Integer>();
+		}
+		else
+		{
+			this.routes = null;
+			this.handlerPriority = null;
+		}
 	}
 
 	public void addNewStorage( final IMEInventoryHandler<T> h )
@@ -83,6 +103,11 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		}
 
 		list.add( h );
+
+		if( this.handlerPriority != null )
+		{
+			this.handlerPriority.put( h, priority );
+		}
 	}
 
 	@Override
@@ -99,15 +124,39 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return input;
 		}
 
-		for( final List<IMEInventoryHandler<T>> invList : this.priorityInventory.values() )
+		final List<IMEInventoryHandler<T>> candidates = this.routes == null ? null : this.routes.get( input );
+
+		for( final Map.Entry<Integer, List<IMEInventoryHandler<T>>> bucket : this.priorityInventory.entrySet() )
 		{
+			final List<IMEInventoryHandler<T>> invList = bucket.getValue();
+
+			// known routes first, if they take everything the rest of the bucket does not need to be asked.
+			if( candidates != null )
+			{
+				for( int x = 0; x < candidates.size() && input != null; x++ )
+				{
+					final IMEInventoryHandler<T> inv = candidates.get( x );
+
+					if( this.handlerPriority.get( inv ).intValue() == bucket.getKey().intValue() && this.isFirstPassTarget( inv, input, src ) )
+					{
+						input = inv.injectItems( input, type, src );
+					}
+				}
+			}
+
 			Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
 			while( ii.hasNext() && input != null )
 			{
 				final IMEInventoryHandler<T> inv = ii.next();
 
-				if( inv.validForPass( 1 ) && inv.canAccept( input ) && ( inv.isPrioritized( input ) || inv.extractItems( input, Actionable.SIMULATE, src ) != null ) )
+				if( candidates != null && candidates.contains( inv ) )
+				{
+					continue;
+				}
+
+				if( this.isFirstPassTarget( inv, input, src ) )
 				{
+					this.addRoute( input, inv );
 					input = inv.injectItems( input, type, src );
 				}
 			}
@@ -123,7 +172,14 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 
 				if( inv.validForPass( 2 ) && inv.canAccept( input ) && !inv.isPrioritized( input ) )
 				{
-					input = inv.injectItems( input, type, src );
+					final T remainder = inv.injectItems( input, type, src );
+
+					if( remainder == null || remainder.getStackSize() < input.getStackSize() )
+					{
+						this.addRoute( input, inv );
+					}
+
+					input = remainder;
 				}
 			}
 		}
@@ -133,6 +189,30 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 		return input;
 	}
 
+	private boolean isFirstPassTarget( final IMEInventoryHandler<T> inv, final T input, final BaseActionSource src )
+	{
+		return inv.validForPass( 1 ) && inv.canAccept( input ) && ( inv.isPrioritized( input ) || inv.extractItems( input, Actionable.SIMULATE, src ) != null );
+	}
+
+	private void addRoute( final T type, final IMEInventoryHandler<T> inv )
+	{
+		if( this.routes == null )
+		{
+			return;
+		}
+
+		List<IMEInventoryHandler<T>> list = this.routes.get( type );
+		if( list == null )
+		{
+			this.routes.put( type.copy(), list = new ArrayList<IMEInventoryHandler<T>>( 2 ) );
+		}
+
+		if( !list.contains( inv ) )
+		{
+			list.add( inv );
+		}
+	}
+
 	private boolean diveList( final NetworkInventoryHandler<T> networkInventoryHandler, final Actionable type )
 	{
 		final LinkedList cDepth = this.getDepth( type );
@@ -218,27 +298,73 @@ public class NetworkInventoryHandler<T extends IAEStack<T>> implements IMEInvent
 			return null;
 		}
 
-		final Iterator<List<IMEInventoryHandler<T>>> i = this.priorityInventory.descendingMap().values().iterator();// priorityInventory.asMap().descendingMap().entrySet().iterator();
+		final Iterator<Map.Entry<Integer, List<IMEInventoryHandler<T>>>> i = this.priorityInventory.descendingMap().entrySet().iterator();// priorityInventory.asMap().descendingMap().entrySet().iterator();
 
 		final T output = request.copy();
 		request = request.copy();
 		output.setStackSize( 0 );
 		final long req = request.getStackSize();
 
-		while( i.hasNext() )
+		final List<IMEInventoryHandler<T>> candidates = this.routes == null ? null : this.routes.get( request );
+		List<IMEInventoryHandler<T>> stale = null;
+
+		while( i.hasNext() && output.getStackSize() < req )
 		{
-			final List<IMEInventoryHandler<T>> invList = i.next();
+			final Map.Entry<Integer, List<IMEInventoryHandler<T>>> bucket = i.next();
+
+			if( candidates != null )
+			{
+				for( int x = 0; x < candidates.size() && output.getStackSize() < req; x++ )
+				{
+					final IMEInventoryHandler<T> inv = candidates.get( x );
+
+					if( this.handlerPriority.get( inv ).intValue() == bucket.getKey().intValue() )
+					{
+						request.setStackSize( req - output.getStackSize() );
+						final T extracted = inv.extractItems( request, mode, src );
 
-			final Iterator<IMEInventoryHandler<T>> ii = invList.iterator();
+						if( extracted == null && !inv.isPrioritized( request ) )
+						{
+							if( stale == null )
+							{
+								stale = new ArrayList<IMEInventoryHandler<T>>( 2 );
+							}
+
+							stale.add( inv );
+						}
+
+						output.add( extracted );
+					}
+				}
+			}
+
+			final Iterator<IMEInventoryHandler<T>> ii = bucket.getValue().iterator();
 			while( ii.hasNext() && output.getStackSize() < req )
 			{
 				final IMEInventoryHandler<T> inv = ii.next();
 
+				if( candidates != null && candidates.contains( inv ) )
+				{
+					continue;
+				}
+
 				request.setStackSize( req - output.getStackSize() );
-				output.add( inv.extractItems( request, mode, src ) );
+				final T extracted = inv.extractItems( request, mode, src );
+
+				if( extracted != null )
+				{
+					this.addRoute( request, inv );
+				}
+
+				output.add( extracted );
 			}
 		}
 
+		if( stale != null )
+		{
+			candidates.removeAll( stale );
+		}
+
 		this.surface( this, mode );
 
 		if( output.getStackSize() <= 0 )
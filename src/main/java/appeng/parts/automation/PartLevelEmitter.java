@@ -70,12 +70,14 @@ import appeng.api.util.IConfigManager;
 import appeng.core.sync.GuiBridge;
 import appeng.helpers.Reflected;
 import appeng.me.GridAccessException;
+import appeng.me.cache.NetworkMonitor;
+import appeng.me.helpers.FuzzyTotals;
 import appeng.tile.inventory.AppEngInternalAEInventory;
 import appeng.tile.inventory.InvOperation;
 import appeng.util.Platform;
 
 
-public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherHost, IStackWatcherHost, ICraftingWatcherHost, IMEMonitorHandlerReceiver<IAEItemStack>, ICraftingProvider
+public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherHost, IStackWatcherHost, ICraftingWatcherHost, IMEMonitorHandlerReceiver<IAEItemStack>, FuzzyTotals.Listener, ICraftingProvider
 {
 
 	private static final int FLAG_ON = 4;
@@ -90,6 +92,7 @@ public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherH
 	private IStackWatcher myWatcher;
 	private IEnergyWatcher myEnergyWatcher;
 	private ICraftingWatcher myCraftingWatcher;
+	private FuzzyTotals fuzzyTotals;
 	private double centerX;
 	private double centerY;
 	private double centerZ;
@@ -217,6 +220,12 @@ public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherH
 			this.myCraftingWatcher.clear();
 		}
 
+		if( this.fuzzyTotals != null )
+		{
+			this.fuzzyTotals.unsubscribe( this );
+			this.fuzzyTotals = null;
+		}
+
 		try
 		{
 			this.getProxy().getGrid().postEvent( new MENetworkCraftingPatternChange( this, this.getProxy().getNode() ) );
@@ -264,7 +273,24 @@ public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherH
 		{
 			if( this.getInstalledUpgrades( Upgrades.FUZZY ) > 0 || myStack == null )
 			{
-				this.getProxy().getStorage().getItemInventory().addListener( this, this.getProxy().getGrid() );
+				final IMEMonitor<IAEItemStack> monitor = this.getProxy().getStorage().getItemInventory();
+				if( monitor instanceof NetworkMonitor )
+				{
+					this.fuzzyTotals = ( (NetworkMonitor<IAEItemStack>) monitor ).getFuzzyTotals();
+				}
+
+				if( this.fuzzyTotals != null )
+				{
+					// the network keeps the total up to date, no need to search its list on every change.
+					monitor.removeListener( this );
+
+					final FuzzyMode fzMode = (FuzzyMode) this.getConfigManager().getSetting( Settings.FUZZY_MODE );
+					this.lastReportedValue = this.fuzzyTotals.subscribe( this, this.getProxy().getGrid(), myStack, fzMode );
+					this.updateState();
+					return;
+				}
+
+				monitor.addListener( this, this.getProxy().getGrid() );
 			}
 			else
 			{
@@ -372,6 +398,13 @@ public class PartLevelEmitter extends PartUpgradeable implements IEnergyWatcherH
 		this.updateReportingValue( (IMEMonitor<IAEItemStack>) monitor );
 	}
 
+	@Override
+	public void onTotalChange( final long total )
+	{
+		this.lastReportedValue = total;
+		this.updateState();
+	}
+
 	@Override
 	public void onListUpdate()
 	{
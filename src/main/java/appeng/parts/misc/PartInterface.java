@@ -83,13 +83,13 @@ public class PartInterface extends PartBasicState implements IGridTickable, ISto
 	@MENetworkEventSubscribe
 	public void stateChange( final MENetworkChannelsChanged c )
 	{
-		this.duality.notifyNeighbors();
+		this.duality.onGridStateChange();
 	}
 
 	@MENetworkEventSubscribe
 	public void stateChange( final MENetworkPowerStatusChange c )
 	{
-		this.duality.notifyNeighbors();
+		this.duality.onGridStateChange();
 	}
 
 	@Override
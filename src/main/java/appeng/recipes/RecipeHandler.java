@@ -436,6 +436,8 @@ public class RecipeHandler implements IRecipeHandler
 			AELog.info( "Recipes Loading: " + e.getKey().getSimpleName() + ": " + e.getValue() + " loaded." );
 		}
 
+		AEApi.instance().registries().craftingRecipes().invalidate();
+
 		if( AEConfig.instance.isFeatureEnabled( AEFeature.WebsiteRecipes ) )
 		{
 			try
@@ -27,6 +27,7 @@ import net.minecraft.item.crafting.CraftingManager;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.oredict.OreDictionary;
 
+import appeng.api.AEApi;
 import appeng.core.AELog;
 import appeng.recipes.game.IRecipeBakeable;
 
@@ -92,6 +93,9 @@ public class OreDictionaryHandler
 				}
 			}
 		}
+
+		// baking changes the inputs of recipes already in the list.
+		AEApi.instance().registries().craftingRecipes().invalidate();
 	}
 
 	/**
@@ -20,7 +20,13 @@ package appeng.services;
 
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -45,33 +51,53 @@ import appeng.services.compass.ICompassCallback;
 import appeng.util.Platform;
 
 
+/**
+ * Updates run in order on one thread, direction requests are served by a small pool next to it.
+ *
+ * Requests look for beacons through the per block counts of the compass regions, so empty parts of the search area
+ * are skipped, and the answers are cached until an update changes a chunk in their range.
+ */
 public final class CompassService
 {
 	private static final int CHUNK_SIZE = 16;
+	private static final int REQUEST_THREADS = 2;
+	private static final int CACHED_DIRECTIONS = 1024;
+	private static final int BLOCK_BITS = 5;
+	private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
 
 	private final Map<World, CompassReader> worldSet = new HashMap<World, CompassReader>( 10 );
 	private final ExecutorService executor;
+	private final ExecutorService requestExecutor;
+	private final Map<DirectionKey, CachedDirection> directionCache;
+	private int cacheGeneration;
 
 	/**
 	 * AE2 Folder for each world
 	 */
 	private final File worldCompassFolder;
 
-	private int jobSize;
-
 	public CompassService( @Nonnull final File worldCompassFolder, @Nonnull final ThreadFactory factory )
 	{
 		Preconditions.checkNotNull( worldCompassFolder );
 
 		this.worldCompassFolder = worldCompassFolder;
 		this.executor = Executors.newSingleThreadExecutor( factory );
-		this.jobSize = 0;
+		this.requestExecutor = Executors.newFixedThreadPool( REQUEST_THREADS, factory );
+		this.directionCache = new LinkedHashMap<DirectionKey, CachedDirection>( CACHED_DIRECTIONS, 0.75f, true ){
+
+			private static final long serialVersionUID = 2717357614372461683L;
+
+			@Override
+			protected boolean removeEldestEntry( final Map.Entry<DirectionKey, CachedDirection> eldest )
+			{
+				return this.size() > CACHED_DIRECTIONS;
+			}
+		};
 	}
 
 	public Future<?> getCompassDirection( final DimensionalCoord coord, final int maxRange, final ICompassCallback cc )
 	{
-		this.jobSize++;
-		return this.executor.submit( new CMDirectionRequest( coord, maxRange, cc ) );
+		return this.requestExecutor.submit( new CMDirectionRequest( coord, maxRange, cc ) );
 	}
 
 	/**
@@ -82,24 +108,19 @@ public final class CompassService
 	@SubscribeEvent
 	public void unloadWorld( final WorldEvent.Unload event )
 	{
-		if( Platform.isServer() && this.worldSet.containsKey( event.getWorld() ) )
+		if( Platform.isServer() )
 		{
-			final CompassReader compassReader = this.worldSet.remove( event.getWorld() );
+			final CompassReader compassReader;
 
-			compassReader.close();
-		}
-	}
-
-	private int jobSize()
-	{
-		return this.jobSize;
-	}
+			synchronized( this.worldSet )
+			{
+				compassReader = this.worldSet.remove( event.getWorld() );
+			}
 
-	private void cleanUp()
-	{
-		for( final CompassReader cr : this.worldSet.values() )
-		{
-			cr.close();
+			if( compassReader != null )
+			{
+				compassReader.close();
+			}
 		}
 	}
 
@@ -121,8 +142,6 @@ public final class CompassService
 
 	public Future<?> updateArea( final World w, final int x, final int y, final int z )
 	{
-		this.jobSize++;
-
 		final int cx = x >> 4;
 		final int cdy = y >> 5;
 		final int cz = z >> 4;
@@ -156,19 +175,28 @@ public final class CompassService
 
 	public void kill()
 	{
+		this.requestExecutor.shutdown();
 		this.executor.shutdown();
 
 		try
 		{
+			this.requestExecutor.awaitTermination( 6, TimeUnit.MINUTES );
 			this.executor.awaitTermination( 6, TimeUnit.MINUTES );
-			this.jobSize = 0;
 
-			for( final CompassReader cr : this.worldSet.values() )
+			synchronized( this.worldSet )
 			{
-				cr.close();
+				for( final CompassReader cr : this.worldSet.values() )
+				{
+					cr.close();
+				}
+
+				this.worldSet.clear();
 			}
 
-			this.worldSet.clear();
+			synchronized( this.directionCache )
+			{
+				this.directionCache.clear();
+			}
 		}
 		catch( final InterruptedException e )
 		{
@@ -178,15 +206,39 @@ public final class CompassService
 
 	private CompassReader getReader( final World w )
 	{
-		CompassReader cr = this.worldSet.get( w );
-
-		if( cr == null )
+		synchronized( this.worldSet )
 		{
-			cr = new CompassReader( w.provider.getDimension(), this.worldCompassFolder );
-			this.worldSet.put( w, cr );
+			CompassReader cr = this.worldSet.get( w );
+
+			if( cr == null )
+			{
+				cr = new CompassReader( w.provider.getDimension(), this.worldCompassFolder );
+				this.worldSet.put( w, cr );
+			}
+
+			return cr;
 		}
+	}
 
-		return cr;
+	/**
+	 * Drops the cached directions which could have seen the changed chunk.
+	 */
+	private void invalidateDirections( final int dim, final int cx, final int cz )
+	{
+		synchronized( this.directionCache )
+		{
+			this.cacheGeneration++;
+
+			final Iterator<DirectionKey> i = this.directionCache.keySet().iterator();
+			while( i.hasNext() )
+			{
+				final DirectionKey key = i.next();
+				if( key.dim == dim && Math.max( Math.abs( key.cx - cx ), Math.abs( key.cz - cz ) ) < key.maxRange )
+				{
+					i.remove();
+				}
+			}
+		}
 	}
 
 	private int dist( final int ax, final int az, final int bx, final int bz )
@@ -227,14 +279,11 @@ public final class CompassService
 		@Override
 		public void run()
 		{
-			CompassService.this.jobSize--;
-
 			final CompassReader cr = CompassService.this.getReader( this.world );
-			cr.setHasBeacon( this.chunkX, this.chunkZ, this.doubleChunkY, this.value );
 
-			if( CompassService.this.jobSize() < 2 )
+			if( cr.setHasBeacon( this.chunkX, this.chunkZ, this.doubleChunkY, this.value ) )
 			{
-				CompassService.this.cleanUp();
+				CompassService.this.invalidateDirections( this.world.provider.getDimension(), this.chunkX, this.chunkZ );
 			}
 		}
 	}
@@ -256,29 +305,52 @@ public final class CompassService
 		@Override
 		public void run()
 		{
-			CompassService.this.jobSize--;
-
 			final int cx = this.coord.x >> 4;
 			final int cz = this.coord.z >> 4;
 
-			final CompassReader cr = CompassService.this.getReader( this.coord.getWorld() );
+			final World world = this.coord.getWorld();
+			final DirectionKey key = new DirectionKey( world.provider.getDimension(), cx, cz, this.maxRange );
+			final int generation;
 
-			// Am I standing on it?
-			if( cr.hasBeacon( cx, cz ) )
+			synchronized( CompassService.this.directionCache )
 			{
-				this.callback.calculatedDirection( true, true, -999, 0 );
+				final CachedDirection cached = CompassService.this.directionCache.get( key );
+				if( cached != null )
+				{
+					cached.post( this.callback );
+					return;
+				}
+
+				generation = CompassService.this.cacheGeneration;
+			}
 
-				if( CompassService.this.jobSize() < 2 )
+			final CachedDirection result = this.findDirection( CompassService.this.getReader( world ), cx, cz );
+
+			synchronized( CompassService.this.directionCache )
+			{
+				// an update in between might have made the result stale already.
+				if( generation == CompassService.this.cacheGeneration )
 				{
-					CompassService.this.cleanUp();
+					CompassService.this.directionCache.put( key, result );
 				}
+			}
 
-				return;
+			result.post( this.callback );
+		}
+
+		private CachedDirection findDirection( final CompassReader cr, final int cx, final int cz )
+		{
+			// Am I standing on it?
+			if( cr.hasBeacon( cx, cz ) )
+			{
+				return new CachedDirection( true, true, -999, 0 );
 			}
 
-			// spiral outward...
-			for( int offset = 1; offset < this.maxRange; offset++ )
+			final int offset = this.findNearestRing( cr, cx, cz );
+
+			if( offset > 0 )
 			{
+				// same scan as the old outward spiral, for the one ring which is known to have a beacon.
 				final int minX = cx - offset;
 				final int minZ = cz - offset;
 				final int maxX = cx + offset;
@@ -340,24 +412,148 @@ public final class CompassService
 
 				if( closest < Integer.MAX_VALUE )
 				{
-					this.callback.calculatedDirection( true, false, CompassService.this.rad( cx, cz, chosen_x, chosen_z ), CompassService.this.dist( cx, cz, chosen_x, chosen_z ) );
+					return new CachedDirection( true, false, CompassService.this.rad( cx, cz, chosen_x, chosen_z ), CompassService.this.dist( cx, cz, chosen_x, chosen_z ) );
+				}
+			}
+
+			// didn't find shit...
+			return new CachedDirection( false, true, -999, 999 );
+		}
 
-					if( CompassService.this.jobSize() < 2 )
+		/**
+		 * @return the smallest ring around the chunk within range which has a beacon, or 0 if there is none.
+		 */
+		private int findNearestRing( final CompassReader cr, final int cx, final int cz )
+		{
+			final int limit = this.maxRange - 1;
+			if( limit < 1 )
+			{
+				return 0;
+			}
+
+			final int minBlockX = ( cx - limit ) >> BLOCK_BITS;
+			final int minBlockZ = ( cz - limit ) >> BLOCK_BITS;
+			final int maxBlockX = ( cx + limit ) >> BLOCK_BITS;
+			final int maxBlockZ = ( cz + limit ) >> BLOCK_BITS;
+
+			final List<long[]> blocks = new ArrayList<long[]>();
+			for( int bz = minBlockZ; bz <= maxBlockZ; bz++ )
+			{
+				for( int bx = minBlockX; bx <= maxBlockX; bx++ )
+				{
+					if( cr.getBeaconCount( bx, bz ) > 0 )
 					{
-						CompassService.this.cleanUp();
+						blocks.add( new long[] { this.ringToBlock( cx, cz, bx, bz ), bx, bz } );
 					}
+				}
+			}
 
-					return;
+			Collections.sort( blocks, new Comparator<long[]>(){
+
+				@Override
+				public int compare( final long[] a, final long[] b )
+				{
+					return a[0] < b[0] ? -1 : ( a[0] > b[0] ? 1 : 0 );
+				}
+			} );
+
+			int best = this.maxRange;
+
+			for( final long[] block : blocks )
+			{
+				if( block[0] >= best )
+				{
+					break;
+				}
+
+				final int lowX = Math.max( (int) block[1] << BLOCK_BITS, cx - limit );
+				final int lowZ = Math.max( (int) block[2] << BLOCK_BITS, cz - limit );
+				final int highX = Math.min( ( (int) block[1] << BLOCK_BITS ) + BLOCK_SIZE - 1, cx + limit );
+				final int highZ = Math.min( ( (int) block[2] << BLOCK_BITS ) + BLOCK_SIZE - 1, cz + limit );
+
+				for( int z = lowZ; z <= highZ; z++ )
+				{
+					for( int x = lowX; x <= highX; x++ )
+					{
+						final int ring = Math.max( Math.abs( x - cx ), Math.abs( z - cz ) );
+						if( ring > 0 && ring < best && cr.hasBeacon( x, z ) )
+						{
+							best = ring;
+						}
+					}
 				}
 			}
 
-			// didn't find shit...
-			this.callback.calculatedDirection( false, true, -999, 999 );
+			return best < this.maxRange ? best : 0;
+		}
+
+		/**
+		 * @return the smallest ring around the chunk which reaches into the block.
+		 */
+		private long ringToBlock( final int cx, final int cz, final int blockX, final int blockZ )
+		{
+			final int lowX = blockX << BLOCK_BITS;
+			final int lowZ = blockZ << BLOCK_BITS;
+
+			final int dx = cx < lowX ? lowX - cx : Math.max( 0, cx - ( lowX + BLOCK_SIZE - 1 ) );
+			final int dz = cz < lowZ ? lowZ - cz : Math.max( 0, cz - ( lowZ + BLOCK_SIZE - 1 ) );
+
+			return Math.max( dx, dz );
+		}
+	}
 
-			if( CompassService.this.jobSize() < 2 )
+	private static final class DirectionKey
+	{
+		private final int dim;
+		private final int cx;
+		private final int cz;
+		private final int maxRange;
+
+		private DirectionKey( final int dim, final int cx, final int cz, final int maxRange )
+		{
+			this.dim = dim;
+			this.cx = cx;
+			this.cz = cz;
+			this.maxRange = maxRange;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return ( ( this.dim * 31 + this.cx ) * 31 + this.cz ) * 31 + this.maxRange;
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( !( obj instanceof DirectionKey ) )
 			{
-				CompassService.this.cleanUp();
+				return false;
 			}
+
+			final DirectionKey other = (DirectionKey) obj;
+			return this.dim == other.dim && this.cx == other.cx && this.cz == other.cz && this.maxRange == other.maxRange;
+		}
+	}
+
+	private static final class CachedDirection
+	{
+		private final boolean hasResult;
+		private final boolean spin;
+		private final double radians;
+		private final double dist;
+
+		private CachedDirection( final boolean hasResult, final boolean spin, final double radians, final double dist )
+		{
+			this.hasResult = hasResult;
+			this.spin = spin;
+			this.radians = radians;
+			this.dist = dist;
+		}
+
+		private void post( final ICompassCallback callback )
+		{
+			callback.calculatedDirection( this.hasResult, this.spin, this.radians, this.dist );
 		}
 	}
 }
@@ -22,15 +22,21 @@ package appeng.services.compass;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.Nonnull;
 
 import com.google.common.base.Preconditions;
 
 
+/**
+ * Queries may run on several threads at once, updates and closing are exclusive.
+ */
 public final class CompassReader
 {
 	private final Map<Long, CompassRegion> regions = new HashMap<Long, CompassRegion>( 100 );
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
 	private final int dimensionId;
 	private final File worldCompassFolder;
 
@@ -45,29 +51,79 @@ public final class CompassReader
 
 	public void close()
 	{
-		for( final CompassRegion r : this.regions.values() )
+		this.lock.writeLock().lock();
+		try
 		{
-			r.close();
-		}
+			for( final CompassRegion r : this.regions.values() )
+			{
+				r.close();
+			}
 
-		this.regions.clear();
+			this.regions.clear();
+		}
+		finally
+		{
+			this.lock.writeLock().unlock();
+		}
 	}
 
-	public void setHasBeacon( final int cx, final int cz, final int cdy, final boolean hasBeacon )
+	/**
+	 * @return true if the chunk gained its first or lost its last beacon.
+	 */
+	public boolean setHasBeacon( final int cx, final int cz, final int cdy, final boolean hasBeacon )
 	{
-		final CompassRegion r = this.getRegion( cx, cz );
+		this.lock.writeLock().lock();
+		try
+		{
+			final CompassRegion r = this.getRegion( cx, cz );
 
-		r.setHasBeacon( cx, cz, cdy, hasBeacon );
+			return r.setHasBeacon( cx, cz, cdy, hasBeacon );
+		}
+		finally
+		{
+			this.lock.writeLock().unlock();
+		}
 	}
 
 	public boolean hasBeacon( final int cx, final int cz )
 	{
-		final CompassRegion r = this.getRegion( cx, cz );
+		this.lock.readLock().lock();
+		try
+		{
+			final CompassRegion r = this.getRegion( cx, cz );
 
-		return r.hasBeacon( cx, cz );
+			return r.hasBeacon( cx, cz );
+		}
+		finally
+		{
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param blockX x of the block of 32x32 chunks, chunk x >> 5
+	 * @param blockZ z of the block of 32x32 chunks, chunk z >> 5
+	 *
+	 * @return how many chunks of the block have a beacon
+	 */
+	public int getBeaconCount( final int blockX, final int blockZ )
+	{
+		this.lock.readLock().lock();
+		try
+		{
+			final int cx = blockX << CompassRegion.BLOCK_BITS;
+			final int cz = blockZ << CompassRegion.BLOCK_BITS;
+			final CompassRegion r = this.getRegion( cx, cz );
+
+			return r.getBeaconCount( ( cx & 0x3FF ) >> CompassRegion.BLOCK_BITS, ( cz & 0x3FF ) >> CompassRegion.BLOCK_BITS );
+		}
+		finally
+		{
+			this.lock.readLock().unlock();
+		}
 	}
 
-	private CompassRegion getRegion( final int cx, final int cz )
+	private synchronized CompassRegion getRegion( final int cx, final int cz )
 	{
 		long pos = cx >> 10;
 		pos <<= 32;
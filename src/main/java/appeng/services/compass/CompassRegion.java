@@ -33,6 +33,12 @@ import appeng.core.worlddata.MeteorDataNameEncoder;
 
 public final class CompassRegion
 {
+	/**
+	 * The region is summarized in blocks of 32x32 chunks.
+	 */
+	static final int BLOCK_BITS = 5;
+	private static final int BLOCKS_PER_SIDE = 0x400 >> BLOCK_BITS;
+
 	private final int lowX;
 	private final int lowZ;
 	private final int world;
@@ -42,6 +48,7 @@ public final class CompassRegion
 	private boolean hasFile = false;
 	private RandomAccessFile raf = null;
 	private ByteBuffer buffer;
+	private int[] blockCounts;
 
 	public CompassRegion( final int cx, final int cz, final int worldID, @Nonnull final File worldCompassFolder )
 	{
@@ -68,6 +75,7 @@ public final class CompassRegion
 			if( this.hasFile )
 			{
 				this.buffer = null;
+				this.blockCounts = null;
 				this.raf.close();
 				this.raf = null;
 				this.hasFile = false;
@@ -96,7 +104,26 @@ public final class CompassRegion
 		return false;
 	}
 
-	void setHasBeacon( int cx, int cz, final int cdy, final boolean hasBeacon )
+	/**
+	 * @param blockX block within the region
+	 * @param blockZ block within the region
+	 *
+	 * @return how many chunks of the block have a beacon
+	 */
+	int getBeaconCount( final int blockX, final int blockZ )
+	{
+		if( this.hasFile )
+		{
+			return this.blockCounts[blockX + blockZ * BLOCKS_PER_SIDE];
+		}
+
+		return 0;
+	}
+
+	/**
+	 * @return true if the chunk gained its first or lost its last beacon.
+	 */
+	boolean setHasBeacon( int cx, int cz, final int cdy, final boolean hasBeacon )
 	{
 		cx &= 0x3FF;
 		cz &= 0x3FF;
@@ -121,7 +148,15 @@ public final class CompassRegion
 			{
 				this.write( cx, cz, val );
 			}
+
+			if( ( originalVal == 0 ) != ( val == 0 ) )
+			{
+				this.blockCounts[this.blockOf( cx, cz )] += val == 0 ? -1 : 1;
+				return true;
+			}
 		}
+
+		return false;
 	}
 
 	@Override
@@ -156,6 +191,7 @@ public final class CompassRegion
 				this.raf = new RandomAccessFile( file, "rw" );
 				final FileChannel fc = this.raf.getChannel();
 				this.buffer = fc.map( FileChannel.MapMode.READ_WRITE, 0, 0x400 * 0x400 );// fc.size() );
+				this.countBeacons();
 				this.hasFile = true;
 			}
 			catch( final Throwable t )
@@ -165,6 +201,27 @@ public final class CompassRegion
 		}
 	}
 
+	private void countBeacons()
+	{
+		this.blockCounts = new int[BLOCKS_PER_SIDE * BLOCKS_PER_SIDE];
+
+		for( int cz = 0; cz < 0x400; cz++ )
+		{
+			for( int cx = 0; cx < 0x400; cx++ )
+			{
+				if( this.buffer.get( cx + cz * 0x400 ) != 0 )
+				{
+					this.blockCounts[this.blockOf( cx, cz )]++;
+				}
+			}
+		}
+	}
+
+	private int blockOf( final int cx, final int cz )
+	{
+		return ( cx >> BLOCK_BITS ) + ( cz >> BLOCK_BITS ) * BLOCKS_PER_SIDE;
+	}
+
 	private File getFile()
 	{
 		final String fileName = this.encoder.encode( this.world, this.lowX, this.lowZ );
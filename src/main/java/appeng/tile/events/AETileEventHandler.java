@@ -19,8 +19,13 @@
 package appeng.tile.events;
 
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 import io.netty.buffer.ByteBuf;
 
@@ -28,130 +33,202 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
+import appeng.core.AELog;
 import appeng.tile.AEBaseTile;
 
 
+/**
+ * Calls a {@link TileEvent} method through an invoker which is generated once, when the handler is created.
+ *
+ * Methods without parameters are ticks, methods returning a boolean read the network stream, anything else takes the
+ * nbt tag or the stream as its only parameter.
+ */
 public final class AETileEventHandler
 {
 
+	private static final MethodType TICK_TYPE = MethodType.methodType( void.class, AEBaseTile.class );
+	private static final MethodType DATA_TYPE = MethodType.methodType( void.class, AEBaseTile.class, Object.class );
+	private static final MethodType READ_TYPE = MethodType.methodType( boolean.class, AEBaseTile.class, Object.class );
+
 	private final Method method;
+	private TickInvoker tickInvoker;
+	private DataInvoker dataInvoker;
+	private ReadInvoker readInvoker;
 
 	public AETileEventHandler( final Method method )
 	{
 		this.method = method;
-	}
 
-	// TICK
-	public void tick( final AEBaseTile tile )
-	{
 		try
 		{
-			this.method.invoke( tile );
+			final Class<?>[] params = method.getParameterTypes();
+
+			if( params.length == 0 )
+			{
+				this.tickInvoker = (TickInvoker) compile( method, TickInvoker.class, "tick", TICK_TYPE );
+			}
+			else if( method.getReturnType() == boolean.class )
+			{
+				this.readInvoker = (ReadInvoker) compile( method, ReadInvoker.class, "readFromStream", READ_TYPE );
+			}
+			else
+			{
+				this.dataInvoker = (DataInvoker) compile( method, DataInvoker.class, "invoke", DATA_TYPE );
+			}
 		}
-		catch( final IllegalAccessException e )
+		catch( final Throwable t )
 		{
-			throw new IllegalStateException( e );
+			throw new IllegalStateException( "Unable to create tile event handler for " + method, t );
 		}
-		catch( final IllegalArgumentException e )
+	}
+
+	// TICK
+	public void tick( final AEBaseTile tile )
+	{
+		try
 		{
-			throw new IllegalStateException( e );
+			this.tickInvoker.tick( tile );
 		}
-		catch( final InvocationTargetException e )
+		catch( final Throwable t )
 		{
-			throw new IllegalStateException( e );
+			throw new IllegalStateException( t );
 		}
 	}
 
 	// WORLD_NBT
 	public void writeToNBT( final AEBaseTile tile, final NBTTagCompound data )
 	{
-		try
-		{
-			this.method.invoke( tile, data );
-		}
-		catch( final IllegalAccessException e )
-		{
-			throw new IllegalStateException( e );
-		}
-		catch( final IllegalArgumentException e )
-		{
-			throw new IllegalStateException( e );
-		}
-		catch( final InvocationTargetException e )
-		{
-			throw new IllegalStateException( e );
-		}
+		this.invoke( tile, data );
 	}
 
 	// WORLD NBT
 	public void readFromNBT( final AEBaseTile tile, final NBTTagCompound data )
+	{
+		this.invoke( tile, data );
+	}
+
+	// NETWORK
+	public void writeToStream( final AEBaseTile tile, final ByteBuf data )
+	{
+		this.invoke( tile, data );
+	}
+
+	// NETWORK
+
+	/**
+	 * returning true from this method, will update the block's render
+	 *
+	 * @param data data of stream
+	 *
+	 * @return true of method could be invoked
+	 */
+	@SideOnly( Side.CLIENT )
+	public boolean readFromStream( final AEBaseTile tile, final ByteBuf data )
 	{
 		try
 		{
-			this.method.invoke( tile, data );
+			return this.readInvoker.readFromStream( tile, data );
 		}
-		catch( final IllegalAccessException e )
+		catch( final Throwable t )
 		{
-			throw new IllegalStateException( e );
-		}
-		catch( final IllegalArgumentException e )
-		{
-			throw new IllegalStateException( e );
-		}
-		catch( final InvocationTargetException e )
-		{
-			throw new IllegalStateException( e );
+			throw new IllegalStateException( t );
 		}
 	}
 
-	// NETWORK
-	public void writeToStream( final AEBaseTile tile, final ByteBuf data )
+	private void invoke( final AEBaseTile tile, final Object data )
 	{
 		try
 		{
-			this.method.invoke( tile, data );
+			this.dataInvoker.invoke( tile, data );
 		}
-		catch( final IllegalAccessException e )
+		catch( final Throwable t )
 		{
-			throw new IllegalStateException( e );
+			throw new IllegalStateException( t );
 		}
-		catch( final IllegalArgumentException e )
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.method.toString();
+	}
+
+	/**
+	 * Binds the method to the interface with LambdaMetafactory, or wraps a method handle if the generated class would
+	 * not be able to call it.
+	 */
+	private static Object compile( final Method m, final Class<?> iface, final String name, final MethodType type ) throws Throwable
+	{
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+		if( !Modifier.isStatic( m.getModifiers() ) )
 		{
-			throw new IllegalStateException( e );
+			try
+			{
+				final MethodHandle target = lookup.unreflect( m );
+				final MethodType instantiated = target.type().changeReturnType( type.returnType() );
+				final CallSite site = LambdaMetafactory.metafactory( lookup, name, MethodType.methodType( iface ), type, target, instantiated );
+
+				return site.getTarget().invoke();
+			}
+			catch( final Throwable t )
+			{
+				AELog.debug( t );
+			}
 		}
-		catch( final InvocationTargetException e )
+
+		m.setAccessible( true );
+
+		MethodHandle handle = lookup.unreflect( m );
+		if( Modifier.isStatic( m.getModifiers() ) )
 		{
-			throw new IllegalStateException( e );
+			handle = MethodHandles.dropArguments( handle, 0, AEBaseTile.class );
 		}
+
+		return new MethodHandleInvoker( handle.asType( type ) );
 	}
 
-	// NETWORK
+	private interface TickInvoker
+	{
+		void tick( AEBaseTile tile ) throws Throwable;
+	}
 
-	/**
-	 * returning true from this method, will update the block's render
-	 *
-	 * @param data data of stream
-	 *
-	 * @return true of method could be invoked
-	 */
-	@SideOnly( Side.CLIENT )
-	public boolean readFromStream( final AEBaseTile tile, final ByteBuf data )
+	private interface DataInvoker
 	{
-		try
+		void invoke( AEBaseTile tile, Object data ) throws Throwable;
+	}
+
+	private interface ReadInvoker
+	{
+		boolean readFromStream( AEBaseTile tile, Object data ) throws Throwable;
+	}
+
+	private static final class MethodHandleInvoker implements TickInvoker, DataInvoker, ReadInvoker
+	{
+
+		private final MethodHandle handle;
+
+		private MethodHandleInvoker( final MethodHandle handle )
 		{
-			return (Boolean) this.method.invoke( tile, data );
+			this.handle = handle;
 		}
-		catch( final IllegalAccessException e )
+
+		@Override
+		public void tick( final AEBaseTile tile ) throws Throwable
 		{
-			throw new IllegalStateException( e );
+			this.handle.invokeExact( tile );
 		}
-		catch( final IllegalArgumentException e )
+
+		@Override
+		public void invoke( final AEBaseTile tile, final Object data ) throws Throwable
 		{
-			throw new IllegalStateException( e );
+			this.handle.invokeExact( tile, data );
 		}
-		catch( final InvocationTargetException e )
+
+		@Override
+		public boolean readFromStream( final AEBaseTile tile, final Object data ) throws Throwable
 		{
-			throw new IllegalStateException( e );
+			return (boolean) this.handle.invokeExact( tile, data );
 		}
 	}
 }
@@ -243,12 +243,9 @@ public class TileInscriber extends AENetworkPowerTile implements IGridTickable,
 				return true;
 			}
 
-			for( final ItemStack optionals : AEApi.instance().registries().inscriber().getOptionals() )
+			if( AEApi.instance().registries().inscriber().isOptional( itemstack ) )
 			{
-				if( Platform.isSameItemPrecise( optionals, itemstack ) )
-				{
-					return true;
-				}
+				return true;
 			}
 		}
 
@@ -396,27 +393,7 @@ public class TileInscriber extends AENetworkPowerTile implements IGridTickable,
 			}
 		}
 
-		for( final IInscriberRecipe recipe : AEApi.instance().registries().inscriber().getRecipes() )
-		{
-
-			final boolean matchA = ( plateA == null && !recipe.getTopOptional().isPresent() ) || ( Platform.isSameItemPrecise( plateA, recipe.getTopOptional().orNull() ) ) && // and...
-			( plateB == null && !recipe.getBottomOptional().isPresent() ) | ( Platform.isSameItemPrecise( plateB, recipe.getBottomOptional().orNull() ) );
-
-			final boolean matchB = ( plateB == null && !recipe.getTopOptional().isPresent() ) || ( Platform.isSameItemPrecise( plateB, recipe.getTopOptional().orNull() ) ) && // and...
-			( plateA == null && !recipe.getBottomOptional().isPresent() ) | ( Platform.isSameItemPrecise( plateA, recipe.getBottomOptional().orNull() ) );
-
-			if( matchA || matchB )
-			{
-				for( final ItemStack option : recipe.getInputs() )
-				{
-					if( Platform.isSameItemPrecise( option, this.getStackInSlot( 2 ) ) )
-					{
-						return recipe;
-					}
-				}
-			}
-		}
-		return null;
+		return AEApi.instance().registries().inscriber().findRecipe( plateA, this.getStackInSlot( 2 ), plateB );
 	}
 
 	@Override
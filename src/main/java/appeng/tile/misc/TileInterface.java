@@ -79,13 +79,13 @@ public class TileInterface extends AENetworkInvTile implements IGridTickable, IT
 	@MENetworkEventSubscribe
 	public void stateChange( final MENetworkChannelsChanged c )
 	{
-		this.duality.notifyNeighbors();
+		this.duality.onGridStateChange();
 	}
 
 	@MENetworkEventSubscribe
 	public void stateChange( final MENetworkPowerStatusChange c )
 	{
-		this.duality.notifyNeighbors();
+		this.duality.onGridStateChange();
 	}
 
 	public void setSide( final EnumFacing facing )
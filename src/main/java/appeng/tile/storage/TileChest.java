@@ -108,6 +108,7 @@ public class TileChest extends AENetworkPowerTile implements IMEChest, IFluidHan
 	private int priority = 0;
 	private int state = 0;
 	private boolean wasActive = false;
+	private boolean savePending = false;
 	private AEColor paintedColor = AEColor.Transparent;
 	private boolean isCached = false;
 	private ICellHandler cellHandler;
@@ -479,6 +480,7 @@ public class TileChest extends AENetworkPowerTile implements IMEChest, IFluidHan
 	@TileEvent( TileEventType.WORLD_NBT_WRITE )
 	public void writeToNBT_TileChest( final NBTTagCompound data )
 	{
+		this.savePending = false;
 		this.config.writeToNBT( data );
 		data.setInteger( "priority", this.priority );
 		data.setByte( "paintedColor", (byte) this.paintedColor.ordinal() );
@@ -858,7 +860,12 @@ public class TileChest extends AENetworkPowerTile implements IMEChest, IFluidHan
 	@Override
 	public void saveChanges( final IMEInventory cellInventory )
 	{
-		this.worldObj.markChunkDirty( this.pos, this );
+		// cells write into their item right away, the chunk only has to be marked again once it was saved.
+		if( !this.savePending )
+		{
+			this.savePending = true;
+			this.worldObj.markChunkDirty( this.pos, this );
+		}
 	}
 
 	private static class ChestNoHandler extends Exception
@@ -75,6 +75,7 @@ public class TileDrive extends AENetworkInvTile implements IChestOrDrive, IPrior
 	private int state = 0;
 	private int priority = 0;
 	private boolean wasActive = false;
+	private boolean savePending = false;
 
 	public TileDrive()
 	{
@@ -195,6 +196,7 @@ public class TileDrive extends AENetworkInvTile implements IChestOrDrive, IPrior
 	@TileEvent( TileEventType.WORLD_NBT_WRITE )
 	public void writeToNBT_TileDrive( final NBTTagCompound data )
 	{
+		this.savePending = false;
 		data.setInteger( "priority", this.priority );
 	}
 
@@ -418,6 +420,11 @@ public class TileDrive extends AENetworkInvTile implements IChestOrDrive, IPrior
 	@Override
 	public void saveChanges( final IMEInventory cellInventory )
 	{
-		this.worldObj.markChunkDirty( this.pos, this );
+		// cells write into their item right away, the chunk only has to be marked again once it was saved.
+		if( !this.savePending )
+		{
+			this.savePending = true;
+			this.worldObj.markChunkDirty( this.pos, this );
+		}
 	}
 }
@@ -22,6 +22,7 @@ package appeng.util;
 import java.util.Comparator;
 
 import appeng.api.config.SortDir;
+import appeng.api.config.SortOrder;
 import appeng.api.storage.data.IAEItemStack;
 import appeng.integration.IntegrationRegistry;
 import appeng.integration.IntegrationType;
@@ -32,77 +33,171 @@ import appeng.util.item.AEItemStack;
 public class ItemSorters
 {
 
-	private static SortDir Direction = SortDir.ASCENDING;
+	private static IInvTweaks api;
 
-	public static final Comparator<IAEItemStack> CONFIG_BASED_SORT_BY_NAME = new Comparator<IAEItemStack>(){
+	/**
+	 * @return a comparator for the given order and direction.
+	 */
+	public static Comparator<IAEItemStack> getSorter( final Enum sortBy, final SortDir direction )
+	{
+		if( sortBy == SortOrder.MOD )
+		{
+			return new Comparator<IAEItemStack>(){
+
+				@Override
+				public int compare( final IAEItemStack o1, final IAEItemStack o2 )
+				{
+					return compareByMod( o1, o2, direction );
+				}
+			};
+		}
 
-		@Override
-		public int compare( final IAEItemStack o1, final IAEItemStack o2 )
+		if( sortBy == SortOrder.AMOUNT )
 		{
-			if( getDirection() == SortDir.ASCENDING )
-			{
-				return Platform.getItemDisplayName( o1 ).compareToIgnoreCase( Platform.getItemDisplayName( o2 ) );
-			}
-			return Platform.getItemDisplayName( o2 ).compareToIgnoreCase( Platform.getItemDisplayName( o1 ) );
+			return new Comparator<IAEItemStack>(){
+
+				@Override
+				public int compare( final IAEItemStack o1, final IAEItemStack o2 )
+				{
+					return compareBySize( o1, o2, direction );
+				}
+			};
 		}
-	};
-	public static final Comparator<IAEItemStack> CONFIG_BASED_SORT_BY_MOD = new Comparator<IAEItemStack>(){
 
-		@Override
-		public int compare( final IAEItemStack o1, final IAEItemStack o2 )
+		if( sortBy == SortOrder.INVTWEAKS )
 		{
-			final AEItemStack op1 = (AEItemStack) o1;
-			final AEItemStack op2 = (AEItemStack) o2;
+			return new Comparator<IAEItemStack>(){
 
-			if( getDirection() == SortDir.ASCENDING )
+				@Override
+				public int compare( final IAEItemStack o1, final IAEItemStack o2 )
+				{
+					return compareByInvTweaks( o1, o2, direction );
+				}
+			};
+		}
+
+		return new Comparator<IAEItemStack>(){
+
+			@Override
+			public int compare( final IAEItemStack o1, final IAEItemStack o2 )
 			{
-				return this.secondarySort( op2.getModID().compareToIgnoreCase( op1.getModID() ), o1, o2 );
+				return compareByName( o1, o2, direction );
 			}
-			return this.secondarySort( op1.getModID().compareToIgnoreCase( op2.getModID() ), o2, o1 );
+		};
+	}
+
+	/**
+	 * @return a comparator for the given order and direction, which sorts by registry names instead of display names
+	 * and mod names. Those are the only ones the server knows.
+	 */
+	public static Comparator<IAEItemStack> getServerSorter( final Enum sortBy, final SortDir direction )
+	{
+		if( sortBy == SortOrder.AMOUNT )
+		{
+			return getSorter( sortBy, direction );
 		}
 
-		private int secondarySort( final int compareToIgnoreCase, final IAEItemStack o1, final IAEItemStack o2 )
+		if( sortBy == SortOrder.MOD )
 		{
-			if( compareToIgnoreCase == 0 )
+			return new Comparator<IAEItemStack>(){
+
+				@Override
+				public int compare( final IAEItemStack o1, final IAEItemStack o2 )
+				{
+					return compareByRegistryDomain( o1, o2, direction );
+				}
+			};
+		}
+
+		return new Comparator<IAEItemStack>(){
+
+			@Override
+			public int compare( final IAEItemStack o1, final IAEItemStack o2 )
 			{
-				return Platform.getItemDisplayName( o2 ).compareToIgnoreCase( Platform.getItemDisplayName( o1 ) );
+				return compareByRegistryName( o1, o2, direction );
 			}
+		};
+	}
 
-			return compareToIgnoreCase;
+	private static int compareByRegistryName( final IAEItemStack o1, final IAEItemStack o2, final SortDir direction )
+	{
+		if( direction == SortDir.ASCENDING )
+		{
+			return Platform.getRegistryName( o1 ).compareTo( Platform.getRegistryName( o2 ) );
 		}
-	};
-	public static final Comparator<IAEItemStack> CONFIG_BASED_SORT_BY_SIZE = new Comparator<IAEItemStack>(){
+		return Platform.getRegistryName( o2 ).compareTo( Platform.getRegistryName( o1 ) );
+	}
+
+	private static int compareByRegistryDomain( final IAEItemStack o1, final IAEItemStack o2, final SortDir direction )
+	{
+		final String d1 = Platform.getRegistryModId( o1 );
+		final String d2 = Platform.getRegistryModId( o2 );
 
-		@Override
-		public int compare( final IAEItemStack o1, final IAEItemStack o2 )
+		if( direction == SortDir.ASCENDING )
 		{
-			if( getDirection() == SortDir.ASCENDING )
-			{
-				return compareLong( o2.getStackSize(), o1.getStackSize() );
-			}
-			return compareLong( o1.getStackSize(), o2.getStackSize() );
+			final int cmp = d2.compareTo( d1 );
+			return cmp == 0 ? Platform.getRegistryName( o2 ).compareTo( Platform.getRegistryName( o1 ) ) : cmp;
 		}
-	};
-	private static IInvTweaks api;
-	public static final Comparator<IAEItemStack> CONFIG_BASED_SORT_BY_INV_TWEAKS = new Comparator<IAEItemStack>(){
 
-		@Override
-		public int compare( final IAEItemStack o1, final IAEItemStack o2 )
+		final int cmp = d1.compareTo( d2 );
+		return cmp == 0 ? Platform.getRegistryName( o1 ).compareTo( Platform.getRegistryName( o2 ) ) : cmp;
+	}
+
+	private static int compareByName( final IAEItemStack o1, final IAEItemStack o2, final SortDir direction )
+	{
+		if( direction == SortDir.ASCENDING )
 		{
-			if( api == null )
-			{
-				return CONFIG_BASED_SORT_BY_NAME.compare( o1, o2 );
-			}
+			return Platform.getItemDisplayName( o1 ).compareToIgnoreCase( Platform.getItemDisplayName( o2 ) );
+		}
+		return Platform.getItemDisplayName( o2 ).compareToIgnoreCase( Platform.getItemDisplayName( o1 ) );
+	}
 
-			final int cmp = api.compareItems( o1.getItemStack(), o2.getItemStack() );
+	private static int compareByMod( final IAEItemStack o1, final IAEItemStack o2, final SortDir direction )
+	{
+		final AEItemStack op1 = (AEItemStack) o1;
+		final AEItemStack op2 = (AEItemStack) o2;
 
-			if( getDirection() == SortDir.ASCENDING )
-			{
-				return cmp;
-			}
-			return -cmp;
+		if( direction == SortDir.ASCENDING )
+		{
+			return secondarySort( op2.getModID().compareToIgnoreCase( op1.getModID() ), o1, o2 );
+		}
+		return secondarySort( op1.getModID().compareToIgnoreCase( op2.getModID() ), o2, o1 );
+	}
+
+	private static int secondarySort( final int compareToIgnoreCase, final IAEItemStack o1, final IAEItemStack o2 )
+	{
+		if( compareToIgnoreCase == 0 )
+		{
+			return Platform.getItemDisplayName( o2 ).compareToIgnoreCase( Platform.getItemDisplayName( o1 ) );
+		}
+
+		return compareToIgnoreCase;
+	}
+
+	private static int compareBySize( final IAEItemStack o1, final IAEItemStack o2, final SortDir direction )
+	{
+		if( direction == SortDir.ASCENDING )
+		{
+			return compareLong( o2.getStackSize(), o1.getStackSize() );
 		}
-	};
+		return compareLong( o1.getStackSize(), o2.getStackSize() );
+	}
+
+	private static int compareByInvTweaks( final IAEItemStack o1, final IAEItemStack o2, final SortDir direction )
+	{
+		if( api == null )
+		{
+			return compareByName( o1, o2, direction );
+		}
+
+		final int cmp = api.compareItems( o1.getItemStack(), o2.getItemStack() );
+
+		if( direction == SortDir.ASCENDING )
+		{
+			return cmp;
+		}
+		return -cmp;
+	}
 
 	public static void init()
 	{
@@ -159,14 +254,4 @@ public class ItemSorters
 		}
 		return 1;
 	}
-
-	private static SortDir getDirection()
-	{
-		return Direction;
-	}
-
-	public static void setDirection( final SortDir direction )
-	{
-		Direction = direction;
-	}
 }
@@ -51,7 +51,6 @@ import net.minecraft.inventory.InventoryCrafting;
 import net.minecraft.inventory.InventoryLargeChest;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.item.crafting.CraftingManager;
 import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.nbt.NBTBase;
 import net.minecraft.nbt.NBTPrimitive;
@@ -65,6 +64,7 @@ import net.minecraft.stats.Achievement;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.tileentity.TileEntityChest;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
@@ -681,18 +681,7 @@ public class Platform
 	 */
 	public static IRecipe findMatchingRecipe( final InventoryCrafting inventoryCrafting, final World par2World )
 	{
-		final CraftingManager cm = CraftingManager.getInstance();
-		final List<IRecipe> rl = cm.getRecipeList();
-
-		for( final IRecipe r : rl )
-		{
-			if( r.matches( inventoryCrafting, par2World ) )
-			{
-				return r;
-			}
-		}
-
-		return null;
+		return AEApi.instance().registries().craftingRecipes().findMatchingRecipe( inventoryCrafting, par2World );
 	}
 
 	public static ItemStack[] getBlockDrops( final World w, final BlockPos pos )
@@ -913,7 +902,7 @@ public class Platform
 
 	public static ItemStack findMatchingRecipeOutput( final InventoryCrafting ic, final World worldObj )
 	{
-		return CraftingManager.getInstance().findMatchingRecipe( ic, worldObj );
+		return AEApi.instance().registries().craftingRecipes().findMatchingRecipeOutput( ic, worldObj );
 	}
 
 	@SideOnly( Side.CLIENT )
@@ -960,6 +949,24 @@ public class Platform
 		return n == null ? "** Null" : n;
 	}
 
+	/**
+	 * @return the registry name of the item, which is known on the server unlike its display name.
+	 */
+	public static String getRegistryName( final IAEItemStack is )
+	{
+		final ResourceLocation name = Item.REGISTRY.getNameForObject( is.getItem() );
+		return name == null ? "** Null" : name.toString();
+	}
+
+	/**
+	 * @return the mod id from the registry name of the item, which is known on the server unlike the mod's name.
+	 */
+	public static String getRegistryModId( final IAEItemStack is )
+	{
+		final ResourceLocation name = Item.REGISTRY.getNameForObject( is.getItem() );
+		return name == null ? "** Null" : name.getResourceDomain();
+	}
+
 	public static String getItemDisplayName( final Object o )
 	{
 		if( o == null )
@@ -51,6 +51,8 @@ public class AEItemDef
 	private List tooltip;
 	@SideOnly( Side.CLIENT )
 	private ResourceLocation uniqueID;
+	@SideOnly( Side.CLIENT )
+	private ItemSearchKey searchKey;
 	private OreReference isOre;
 
 	public AEItemDef( final Item it )
@@ -187,6 +189,17 @@ public class AEItemDef
 		return uniqueID;
 	}
 
+	ItemSearchKey getSearchKey()
+	{
+		return this.searchKey;
+	}
+
+	ItemSearchKey setSearchKey( final ItemSearchKey searchKey )
+	{
+		this.searchKey = searchKey;
+		return searchKey;
+	}
+
 	OreReference getIsOre()
 	{
 		return this.isOre;
@@ -591,6 +591,17 @@ public final class AEItemStack extends AEStack<IAEItemStack> implements IAEItemS
 		return this.getDefinition().getDisplayName();
 	}
 	
+	@SideOnly( Side.CLIENT )
+	public ItemSearchKey getSearchKey()
+	{
+		if( this.getDefinition().getSearchKey() != null )
+		{
+			return this.getDefinition().getSearchKey();
+		}
+
+		return this.getDefinition().setSearchKey( new ItemSearchKey( this ) );
+	}
+
 	@SideOnly( Side.CLIENT )
 	public String getModID()
 	{
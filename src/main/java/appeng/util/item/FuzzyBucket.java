@@ -0,0 +1,146 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import net.minecraftforge.oredict.OreDictionary;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+
+
+/**
+ * The stacks a fuzzy filter selects, either every stack or the damage ranges {@link ItemList#findFuzzy} returns.
+ *
+ * Single stacks can be tested against the same ranges, so a total over the bucket can be kept up to date from the
+ * changes of a list instead of searching it again. Buckets with equal filters are equal.
+ */
+public final class FuzzyBucket
+{
+
+	@Nullable
+	private final IAEItemStack filter;
+	private final FuzzyMode mode;
+	private final List<AEItemStack> low = new ArrayList<AEItemStack>( 1 );
+	private final List<AEItemStack> high = new ArrayList<AEItemStack>( 1 );
+
+	/**
+	 * @param filter null to select every stack.
+	 */
+	public FuzzyBucket( @Nullable final IAEItemStack filter, final FuzzyMode mode )
+	{
+		this.filter = filter == null ? null : filter.copy();
+		this.mode = mode;
+
+		if( filter == null )
+		{
+			return;
+		}
+
+		final AEItemStack ais = (AEItemStack) filter;
+
+		if( ais.isOre() )
+		{
+			for( final IAEItemStack is : ais.getDefinition().getIsOre().getAEEquivalents() )
+			{
+				this.addRange( (AEItemStack) is, is.getItemDamage() == OreDictionary.WILDCARD_VALUE );
+			}
+		}
+		else
+		{
+			this.addRange( ais, false );
+		}
+	}
+
+	private void addRange( final AEItemStack is, final boolean ignoreMeta )
+	{
+		this.low.add( (AEItemStack) is.getLow( this.mode, ignoreMeta ) );
+		this.high.add( (AEItemStack) is.getHigh( this.mode, ignoreMeta ) );
+	}
+
+	/**
+	 * @return how often findFuzzy would return the stack, ore filters can select a stack more than once.
+	 */
+	public int count( final IAEItemStack is )
+	{
+		if( this.filter == null )
+		{
+			return 1;
+		}
+
+		final AEItemStack ais = (AEItemStack) is;
+		int count = 0;
+
+		for( int x = 0; x < this.low.size(); x++ )
+		{
+			if( ais.compareTo( this.low.get( x ) ) >= 0 && ais.compareTo( this.high.get( x ) ) <= 0 )
+			{
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * @return the sum of the stack sizes in the bucket.
+	 */
+	public long getTotal( final IItemList<IAEItemStack> list )
+	{
+		long total = 0;
+
+		final Iterable<IAEItemStack> stacks = this.filter == null ? list : list.findFuzzy( this.filter, this.mode );
+		for( final IAEItemStack is : stacks )
+		{
+			total += is.getStackSize();
+		}
+
+		return total;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.filter == null ? 0 : this.filter.hashCode() * 31 + this.mode.hashCode();
+	}
+
+	@Override
+	public boolean equals( final Object obj )
+	{
+		if( !( obj instanceof FuzzyBucket ) )
+		{
+			return false;
+		}
+
+		final FuzzyBucket other = (FuzzyBucket) obj;
+
+		if( this.filter == null || other.filter == null )
+		{
+			return this.filter == other.filter;
+		}
+
+		return this.mode == other.mode && this.filter.equals( other.filter );
+	}
+}
@@ -0,0 +1,482 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import net.minecraft.item.Item;
+import net.minecraftforge.oredict.OreDictionary;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+
+
+/**
+ * {@link IItemList} backed by an open addressing hash table instead of a sorted map.
+ *
+ * Precise lookups only hash the {@link AEItemDef} and compare a handful of entries, instead of walking a skip list
+ * with {@link AEItemStack#compareTo(AEItemStack)}. Fuzzy lookups need the sort order, so they are served from a
+ * secondary per {@link Item} index which is only built once the first fuzzy query hits the list.
+ *
+ * Unlike {@link ItemList} this list is not safe for concurrent modification from multiple threads.
+ */
+public final class HashedItemList implements IItemList<IAEItemStack>
+{
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int MAX_LOAD_PERCENT = 60;
+	private static final Object TOMBSTONE = new Object();
+
+	private Object[] table = new Object[INITIAL_CAPACITY];
+	private int size;
+	private int used;
+
+	private Map<Item, NavigableMap<IAEItemStack, IAEItemStack>> fuzzyIndex;
+
+	@Override
+	public void add( final IAEItemStack option )
+	{
+		if( option == null )
+		{
+			return;
+		}
+
+		final IAEItemStack st = this.getRecord( option );
+
+		if( st != null )
+		{
+			st.add( option );
+			return;
+		}
+
+		final IAEItemStack opt = option.copy();
+
+		this.putItemRecord( opt );
+	}
+
+	@Override
+	public IAEItemStack findPrecise( final IAEItemStack itemStack )
+	{
+		if( itemStack == null )
+		{
+			return null;
+		}
+
+		return this.getRecord( itemStack );
+	}
+
+	@Override
+	public Collection<IAEItemStack> findFuzzy( final IAEItemStack filter, final FuzzyMode fuzzy )
+	{
+		if( filter == null )
+		{
+			return Collections.emptyList();
+		}
+
+		final AEItemStack ais = (AEItemStack) filter;
+
+		if( ais.isOre() )
+		{
+			final OreReference or = ais.getDefinition().getIsOre();
+
+			if( or.getAEEquivalents().size() == 1 )
+			{
+				final IAEItemStack is = or.getAEEquivalents().get( 0 );
+
+				return this.findFuzzyDamage( (AEItemStack) is, fuzzy, is.getItemDamage() == OreDictionary.WILDCARD_VALUE );
+			}
+			else
+			{
+				final Collection<IAEItemStack> output = new LinkedList<IAEItemStack>();
+
+				for( final IAEItemStack is : or.getAEEquivalents() )
+				{
+					output.addAll( this.findFuzzyDamage( (AEItemStack) is, fuzzy, is.getItemDamage() == OreDictionary.WILDCARD_VALUE ) );
+				}
+
+				return output;
+			}
+		}
+
+		return this.findFuzzyDamage( ais, fuzzy, false );
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return !this.iterator().hasNext();
+	}
+
+	@Override
+	public void addStorage( final IAEItemStack option )
+	{
+		if( option == null )
+		{
+			return;
+		}
+
+		final IAEItemStack st = this.getRecord( option );
+
+		if( st != null )
+		{
+			st.incStackSize( option.getStackSize() );
+			return;
+		}
+
+		final IAEItemStack opt = option.copy();
+
+		this.putItemRecord( opt );
+	}
+
+	@Override
+	public void addCrafting( final IAEItemStack option )
+	{
+		if( option == null )
+		{
+			return;
+		}
+
+		final IAEItemStack st = this.getRecord( option );
+
+		if( st != null )
+		{
+			st.setCraftable( true );
+			return;
+		}
+
+		final IAEItemStack opt = option.copy();
+		opt.setStackSize( 0 );
+		opt.setCraftable( true );
+
+		this.putItemRecord( opt );
+	}
+
+	@Override
+	public void addRequestable( final IAEItemStack option )
+	{
+		if( option == null )
+		{
+			return;
+		}
+
+		final IAEItemStack st = this.getRecord( option );
+
+		if( st != null )
+		{
+			st.setCountRequestable( st.getCountRequestable() + option.getCountRequestable() );
+			return;
+		}
+
+		final IAEItemStack opt = option.copy();
+		opt.setStackSize( 0 );
+		opt.setCraftable( false );
+		opt.setCountRequestable( option.getCountRequestable() );
+
+		this.putItemRecord( opt );
+	}
+
+	@Override
+	public IAEItemStack getFirstItem()
+	{
+		for( final IAEItemStack stackType : this )
+		{
+			return stackType;
+		}
+
+		return null;
+	}
+
+	@Override
+	public int size()
+	{
+		return this.size;
+	}
+
+	@Override
+	public Iterator<IAEItemStack> iterator()
+	{
+		return new MeaningfulItemIterator<IAEItemStack>( new TableIterator() );
+	}
+
+	@Override
+	public void resetStatus()
+	{
+		for( final IAEItemStack i : this )
+		{
+			i.reset();
+		}
+	}
+
+	private static int indexFor( final Object key, final int mask )
+	{
+		// AEItemDef hashes keep the damage value in the low bits, so spread them before masking.
+		final int h = key.hashCode() * 0x9E3779B9;
+		return ( h ^ ( h >>> 16 ) ) & mask;
+	}
+
+	private IAEItemStack getRecord( final IAEItemStack key )
+	{
+		final Object[] tab = this.table;
+		final int mask = tab.length - 1;
+
+		for( int i = indexFor( key, mask );; i = ( i + 1 ) & mask )
+		{
+			final Object o = tab[i];
+
+			if( o == null )
+			{
+				return null;
+			}
+
+			if( o != TOMBSTONE && o.equals( key ) )
+			{
+				return (IAEItemStack) o;
+			}
+		}
+	}
+
+	private void putItemRecord( final IAEItemStack itemStack )
+	{
+		if( ( this.used + 1 ) * 100 > this.table.length * MAX_LOAD_PERCENT )
+		{
+			this.rehash();
+		}
+
+		final Object[] tab = this.table;
+		final int mask = tab.length - 1;
+		int free = -1;
+
+		for( int i = indexFor( itemStack, mask );; i = ( i + 1 ) & mask )
+		{
+			final Object o = tab[i];
+
+			if( o == null )
+			{
+				if( free < 0 )
+				{
+					free = i;
+					this.used++;
+				}
+				break;
+			}
+
+			if( o == TOMBSTONE )
+			{
+				if( free < 0 )
+				{
+					free = i;
+				}
+			}
+			else if( o.equals( itemStack ) )
+			{
+				tab[i] = itemStack;
+				this.indexFuzzy( itemStack );
+				return;
+			}
+		}
+
+		tab[free] = itemStack;
+		this.size++;
+		this.indexFuzzy( itemStack );
+	}
+
+	private void rehash()
+	{
+		final Object[] old = this.table;
+
+		int capacity = old.length;
+		while( ( this.size + 1 ) * 100 > capacity * MAX_LOAD_PERCENT / 2 )
+		{
+			capacity <<= 1;
+		}
+
+		final Object[] tab = new Object[capacity];
+		final int mask = capacity - 1;
+
+		for( final Object o : old )
+		{
+			if( o != null && o != TOMBSTONE )
+			{
+				int i = indexFor( o, mask );
+				while( tab[i] != null )
+				{
+					i = ( i + 1 ) & mask;
+				}
+				tab[i] = o;
+			}
+		}
+
+		this.table = tab;
+		this.used = this.size;
+	}
+
+	private void removeSlot( final Object[] tab, final int slot )
+	{
+		final IAEItemStack removed = (IAEItemStack) tab[slot];
+
+		if( tab == this.table )
+		{
+			tab[slot] = TOMBSTONE;
+		}
+		else
+		{
+			// the table was rebuilt while iterating, find the record in the current one.
+			final Object[] current = this.table;
+			final int mask = current.length - 1;
+
+			for( int i = indexFor( removed, mask );; i = ( i + 1 ) & mask )
+			{
+				final Object o = current[i];
+
+				if( o == null )
+				{
+					return;
+				}
+
+				if( o == removed )
+				{
+					current[i] = TOMBSTONE;
+					break;
+				}
+			}
+		}
+
+		this.size--;
+
+		if( this.fuzzyIndex != null )
+		{
+			final NavigableMap<IAEItemStack, IAEItemStack> bucket = this.fuzzyIndex.get( removed.getItem() );
+
+			if( bucket != null )
+			{
+				bucket.remove( removed );
+			}
+		}
+	}
+
+	private void indexFuzzy( final IAEItemStack itemStack )
+	{
+		if( this.fuzzyIndex == null )
+		{
+			return;
+		}
+
+		NavigableMap<IAEItemStack, IAEItemStack> bucket = this.fuzzyIndex.get( itemStack.getItem() );
+
+		if( bucket == null )
+		{
+			bucket = new ConcurrentSkipListMap<IAEItemStack, IAEItemStack>();
+			this.fuzzyIndex.put( itemStack.getItem(), bucket );
+		}
+
+		bucket.put( itemStack, itemStack );
+	}
+
+	private Collection<IAEItemStack> findFuzzyDamage( final AEItemStack filter, final FuzzyMode fuzzy, final boolean ignoreMeta )
+	{
+		if( this.fuzzyIndex == null )
+		{
+			this.fuzzyIndex = new IdentityHashMap<Item, NavigableMap<IAEItemStack, IAEItemStack>>();
+
+			for( final Object o : this.table )
+			{
+				if( o != null && o != TOMBSTONE )
+				{
+					this.indexFuzzy( (IAEItemStack) o );
+				}
+			}
+		}
+
+		final NavigableMap<IAEItemStack, IAEItemStack> bucket = this.fuzzyIndex.get( filter.getItem() );
+
+		if( bucket == null )
+		{
+			return Collections.emptyList();
+		}
+
+		final IAEItemStack low = filter.getLow( fuzzy, ignoreMeta );
+		final IAEItemStack high = filter.getHigh( fuzzy, ignoreMeta );
+
+		return bucket.subMap( low, true, high, true ).descendingMap().values();
+	}
+
+	private final class TableIterator implements Iterator<IAEItemStack>
+	{
+
+		private final Object[] tab = HashedItemList.this.table;
+		private int next = -1;
+		private int current = -1;
+
+		private TableIterator()
+		{
+			this.advance();
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return this.next < this.tab.length;
+		}
+
+		@Override
+		public IAEItemStack next()
+		{
+			if( !this.hasNext() )
+			{
+				throw new NoSuchElementException();
+			}
+
+			this.current = this.next;
+			this.advance();
+
+			return (IAEItemStack) this.tab[this.current];
+		}
+
+		@Override
+		public void remove()
+		{
+			if( this.current < 0 )
+			{
+				throw new IllegalStateException();
+			}
+
+			HashedItemList.this.removeSlot( this.tab, this.current );
+			this.current = -1;
+		}
+
+		private void advance()
+		{
+			do
+			{
+				this.next++;
+			}
+			while( this.next < this.tab.length && ( this.tab[this.next] == null || this.tab[this.next] == TOMBSTONE ) );
+		}
+	}
+}
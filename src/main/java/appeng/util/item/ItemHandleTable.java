@@ -0,0 +1,212 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.buffer.ByteBuf;
+
+import appeng.api.storage.data.IAEItemStack;
+
+
+/**
+ * Session scoped dictionary for syncing an item list.
+ *
+ * The first time a stack type is written it is assigned a handle and sent in full, after that only the handle and the
+ * changes to its counts are sent. Both sides keep the last state of every handle, so packets have to be read in the
+ * same order they were written and none of them may be dropped.
+ */
+public final class ItemHandleTable
+{
+
+	private static final AtomicInteger NEXT_SESSION = new AtomicInteger();
+
+	private final int session;
+	private final Map<IAEItemStack, Integer> handles = new HashMap<IAEItemStack, Integer>();
+	private final List<IAEItemStack> states = new ArrayList<IAEItemStack>();
+
+	// undo information for the last write.
+	private int lastHandle = -1;
+	private IAEItemStack lastState;
+
+	/**
+	 * Creates the writing side of a new session.
+	 */
+	public ItemHandleTable()
+	{
+		this( NEXT_SESSION.incrementAndGet() );
+	}
+
+	/**
+	 * Creates the reading side of the given session.
+	 */
+	public ItemHandleTable( final int session )
+	{
+		this.session = session;
+	}
+
+	public int getSession()
+	{
+		return this.session;
+	}
+
+	public void write( final IAEItemStack is, final ByteBuf out ) throws IOException
+	{
+		final Integer handle = this.handles.get( is );
+
+		if( handle == null )
+		{
+			final int newHandle = this.states.size();
+			final IAEItemStack state = is.copy();
+
+			this.handles.put( state, newHandle );
+			this.states.add( state );
+			this.lastHandle = newHandle;
+			this.lastState = null;
+
+			writeVarLong( out, ( (long) newHandle << 1 ) | 1 );
+			is.writeToPacket( out );
+			return;
+		}
+
+		final IAEItemStack state = this.states.get( handle );
+
+		this.lastHandle = handle;
+		this.lastState = state.copy();
+
+		writeVarLong( out, (long) handle << 1 );
+		out.writeBoolean( is.isCraftable() );
+		writeVarLong( out, zigZag( is.getStackSize() - state.getStackSize() ) );
+		writeVarLong( out, zigZag( is.getCountRequestable() - state.getCountRequestable() ) );
+
+		state.setStackSize( is.getStackSize() );
+		state.setCountRequestable( is.getCountRequestable() );
+		state.setCraftable( is.isCraftable() );
+	}
+
+	/**
+	 * Undoes the last {@link #write(IAEItemStack, ByteBuf)}, for writes which did not make it into a packet.
+	 */
+	public void revert()
+	{
+		if( this.lastHandle < 0 )
+		{
+			return;
+		}
+
+		if( this.lastState == null )
+		{
+			this.handles.remove( this.states.remove( this.lastHandle ) );
+		}
+		else
+		{
+			final IAEItemStack state = this.states.get( this.lastHandle );
+			state.setStackSize( this.lastState.getStackSize() );
+			state.setCountRequestable( this.lastState.getCountRequestable() );
+			state.setCraftable( this.lastState.isCraftable() );
+		}
+
+		this.lastHandle = -1;
+		this.lastState = null;
+	}
+
+	/**
+	 * @return the current state of the read stack, or null if its item is unknown on this side.
+	 */
+	public IAEItemStack read( final ByteBuf in ) throws IOException
+	{
+		final long header = readVarLong( in );
+		final int handle = (int) ( header >>> 1 );
+
+		if( ( header & 1 ) != 0 )
+		{
+			final IAEItemStack is = AEItemStack.loadItemStackFromPacket( in );
+
+			while( this.states.size() <= handle )
+			{
+				this.states.add( null );
+			}
+
+			this.states.set( handle, is == null ? null : is.copy() );
+			return is;
+		}
+
+		final boolean craftable = in.readBoolean();
+		final long stackSize = unZigZag( readVarLong( in ) );
+		final long countRequestable = unZigZag( readVarLong( in ) );
+
+		final IAEItemStack state = handle < this.states.size() ? this.states.get( handle ) : null;
+
+		if( state == null )
+		{
+			return null;
+		}
+
+		state.setStackSize( state.getStackSize() + stackSize );
+		state.setCountRequestable( state.getCountRequestable() + countRequestable );
+		state.setCraftable( craftable );
+
+		return state.copy();
+	}
+
+	private static long zigZag( final long value )
+	{
+		return ( value << 1 ) ^ ( value >> 63 );
+	}
+
+	private static long unZigZag( final long value )
+	{
+		return ( value >>> 1 ) ^ -( value & 1 );
+	}
+
+	private static void writeVarLong( final ByteBuf out, long value )
+	{
+		while( ( value & ~0x7FL ) != 0 )
+		{
+			out.writeByte( (int) ( value & 0x7F ) | 0x80 );
+			value >>>= 7;
+		}
+
+		out.writeByte( (int) value );
+	}
+
+	private static long readVarLong( final ByteBuf in ) throws IOException
+	{
+		long value = 0;
+
+		for( int shift = 0; shift < 64; shift += 7 )
+		{
+			final byte b = in.readByte();
+			value |= (long) ( b & 0x7F ) << shift;
+
+			if( ( b & 0x80 ) == 0 )
+			{
+				return value;
+			}
+		}
+
+		throw new IOException( "Malformed varint in item handle table." );
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import appeng.util.Platform;
+
+
+/**
+ * The lower cased texts the terminal searches an item by, built once per item definition.
+ */
+public final class ItemSearchKey
+{
+
+	private final AEItemStack stack;
+	private final String name;
+	private final String modId;
+	private String[] tooltip;
+
+	ItemSearchKey( final AEItemStack stack )
+	{
+		this.stack = stack;
+		this.name = Platform.getItemDisplayName( stack ).toLowerCase();
+		this.modId = Platform.getModId( stack ).toLowerCase();
+	}
+
+	public boolean matches( final Pattern search, final boolean searchMod, final boolean searchToolTips )
+	{
+		if( search.matcher( searchMod ? this.modId : this.name ).find() )
+		{
+			return true;
+		}
+
+		if( searchToolTips )
+		{
+			for( final String line : this.getTooltip() )
+			{
+				if( search.matcher( line ).find() )
+				{
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	private String[] getTooltip()
+	{
+		if( this.tooltip == null )
+		{
+			final List<String> lines = new ArrayList<String>();
+			for( final Object lp : this.stack.getToolTip() )
+			{
+				if( lp instanceof String )
+				{
+					lines.add( ( (String) lp ).toLowerCase() );
+				}
+			}
+
+			this.tooltip = lines.toArray( new String[lines.size()] );
+		}
+
+		return this.tooltip;
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.util.item;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import appeng.api.config.SortDir;
+import appeng.api.config.SortOrder;
+import appeng.api.config.ViewItems;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.util.ItemSorters;
+import appeng.util.Platform;
+import appeng.util.prioitylist.IPartitionList;
+
+
+/**
+ * Sorted and filtered view of an item list, the server side counterpart of the terminal's item repo.
+ *
+ * The view holds copies of the listed stacks. Changes are sorted in with a binary search, as long as the sort key of a
+ * stack can not change, sorting by amount rebuilds the view instead. Names are sorted and searched by registry name,
+ * see {@link ItemSorters#getServerSorter}.
+ */
+public final class SortedItemView
+{
+
+	private final List<IAEItemStack> view = new ArrayList<IAEItemStack>();
+
+	private Comparator<IAEItemStack> sorter = ItemSorters.getServerSorter( SortOrder.NAME, SortDir.ASCENDING );
+	private boolean stableKeys = true;
+	private Enum viewMode = ViewItems.ALL;
+	private String search;
+	private boolean searchMod;
+	private IPartitionList<IAEItemStack> partitions;
+
+	private boolean stale = true;
+	private boolean changed;
+
+	public void setSorting( final Enum sortBy, final SortDir direction, final Enum viewMode )
+	{
+		this.sorter = ItemSorters.getServerSorter( sortBy, direction );
+		this.stableKeys = sortBy != SortOrder.AMOUNT;
+		this.viewMode = viewMode;
+		this.stale = true;
+	}
+
+	/**
+	 * Matches registry names containing the search string, or mod ids with a leading @. Unlike the terminal's search box
+	 * the string is never compiled as a regex, since it comes from the client. Display names and tooltips are only known
+	 * on the client, so they can not be searched.
+	 */
+	public void setSearch( final String searchString )
+	{
+		String innerSearch = searchString;
+
+		this.searchMod = innerSearch.startsWith( "@" );
+		if( this.searchMod )
+		{
+			innerSearch = innerSearch.substring( 1 );
+		}
+
+		this.search = innerSearch.isEmpty() ? null : innerSearch.toLowerCase();
+		this.stale = true;
+	}
+
+	public void setPartitions( final IPartitionList<IAEItemStack> partitions )
+	{
+		this.partitions = partitions;
+		this.stale = true;
+	}
+
+	public void invalidate()
+	{
+		this.stale = true;
+	}
+
+	/**
+	 * @param current the current state of a changed stack, with a size of 0 if it is gone.
+	 */
+	public void update( final IAEItemStack current )
+	{
+		if( this.stale )
+		{
+			return;
+		}
+
+		if( !this.stableKeys )
+		{
+			this.stale = true;
+			return;
+		}
+
+		final int idx = this.indexOf( current );
+		final boolean listed = this.isListed( current );
+
+		if( idx >= 0 )
+		{
+			if( listed )
+			{
+				this.copyState( current, this.view.get( idx ) );
+			}
+			else
+			{
+				this.view.remove( idx );
+			}
+
+			this.changed = true;
+		}
+		else if( listed )
+		{
+			this.view.add( -( idx + 1 ), this.createEntry( current ) );
+			this.changed = true;
+		}
+	}
+
+	/**
+	 * Rebuilds the view if it became stale.
+	 *
+	 * @return true if the view changed since the last refresh.
+	 */
+	public boolean refresh( final IItemList<IAEItemStack> source )
+	{
+		if( this.stale )
+		{
+			this.stale = false;
+			this.view.clear();
+
+			for( final IAEItemStack is : source )
+			{
+				if( this.isListed( is ) )
+				{
+					this.view.add( this.createEntry( is ) );
+				}
+			}
+
+			Collections.sort( this.view, this.sorter );
+			this.changed = true;
+		}
+
+		final boolean wasChanged = this.changed;
+		this.changed = false;
+		return wasChanged;
+	}
+
+	public int size()
+	{
+		return this.view.size();
+	}
+
+	/**
+	 * @return the listed stacks from start to end, clamped to the size of the view.
+	 */
+	public List<IAEItemStack> getRange( final int start, final int end )
+	{
+		return this.view.subList( Math.max( 0, Math.min( start, this.view.size() ) ), Math.max( 0, Math.min( end, this.view.size() ) ) );
+	}
+
+	/**
+	 * @return the index of the entry for the stack, or -( insertion point ) - 1 if it has none.
+	 */
+	private int indexOf( final IAEItemStack is )
+	{
+		final int found = Collections.binarySearch( this.view, is, this.sorter );
+
+		if( found < 0 )
+		{
+			return found;
+		}
+
+		// equal sort keys do not make equal items, look through the whole run.
+		for( int x = found; x >= 0 && this.sorter.compare( this.view.get( x ), is ) == 0; x-- )
+		{
+			if( this.view.get( x ).equals( is ) )
+			{
+				return x;
+			}
+		}
+
+		for( int x = found + 1; x < this.view.size() && this.sorter.compare( this.view.get( x ), is ) == 0; x++ )
+		{
+			if( this.view.get( x ).equals( is ) )
+			{
+				return x;
+			}
+		}
+
+		return -( found + 1 );
+	}
+
+	private boolean isListed( final IAEItemStack is )
+	{
+		if( !is.isMeaningful() )
+		{
+			return false;
+		}
+
+		if( this.partitions != null && !this.partitions.isListed( is ) )
+		{
+			return false;
+		}
+
+		if( this.viewMode == ViewItems.CRAFTABLE && !is.isCraftable() )
+		{
+			return false;
+		}
+
+		if( this.viewMode == ViewItems.STORED && is.getStackSize() == 0 )
+		{
+			return false;
+		}
+
+		if( this.search == null )
+		{
+			return true;
+		}
+
+		final String name = this.searchMod ? Platform.getRegistryModId( is ) : Platform.getRegistryName( is );
+		return name.toLowerCase().contains( this.search );
+	}
+
+	private IAEItemStack createEntry( final IAEItemStack is )
+	{
+		final IAEItemStack entry = is.copy();
+		this.copyState( is, entry );
+		return entry;
+	}
+
+	private void copyState( final IAEItemStack from, final IAEItemStack to )
+	{
+		to.setStackSize( this.viewMode == ViewItems.CRAFTABLE ? 0 : from.getStackSize() );
+		to.setCountRequestable( from.getCountRequestable() );
+		to.setCraftable( from.isCraftable() );
+	}
+}
@@ -0,0 +1,294 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache;
+
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.collect.HashMultimap;
+
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.item.ItemStack;
+
+import appeng.api.config.AccessRestriction;
+import appeng.api.config.Actionable;
+import appeng.api.config.FuzzyMode;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.storage.IMEInventoryHandler;
+import appeng.api.storage.IMEMonitor;
+import appeng.api.storage.StorageChannel;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.me.helpers.FuzzyTotals;
+import appeng.me.helpers.GenericInterestManager;
+import appeng.me.storage.ItemWatcher;
+import appeng.util.item.AEItemStack;
+import appeng.util.item.ItemList;
+
+
+/**
+ * Tests for {@link NetworkMonitor}
+ */
+public final class NetworkMonitorTest
+{
+
+	private static final BaseActionSource SOURCE = new BaseActionSource();
+
+	@BeforeClass
+	public static void setup()
+	{
+		Bootstrap.register();
+	}
+
+	private static IAEItemStack stone( final long size )
+	{
+		final IAEItemStack is = AEItemStack.create( new ItemStack( Blocks.STONE ) );
+		is.setStackSize( size );
+		return is;
+	}
+
+	private static long stored( final IItemList<IAEItemStack> list )
+	{
+		final IAEItemStack is = list.findPrecise( stone( 1 ) );
+		return is == null ? 0 : is.getStackSize();
+	}
+
+	private static NetworkMonitor<IAEItemStack> monitor( final IMEInventoryHandler<IAEItemStack> handler )
+	{
+		final GenericInterestManager<ItemWatcher> interests = new GenericInterestManager<ItemWatcher>( HashMultimap.create() );
+
+		return new NetworkMonitor<IAEItemStack>( null, StorageChannel.ITEMS, new ItemList(), true, false )
+		{
+			@Override
+			IMEInventoryHandler<IAEItemStack> getHandler()
+			{
+				return handler;
+			}
+
+			@Override
+			GenericInterestManager<ItemWatcher> getInterestManager()
+			{
+				return interests;
+			}
+		};
+	}
+
+	/**
+	 * Two networks connected by storage buses in both directions, only the first one has a cell.
+	 */
+	@Test
+	public void testStorageBusLoop_shouldPass()
+	{
+		final LoopHandler first = new LoopHandler();
+		final LoopHandler second = new LoopHandler();
+		final NetworkMonitor<IAEItemStack> a = monitor( first );
+		final NetworkMonitor<IAEItemStack> b = monitor( second );
+		first.bus = b;
+		second.bus = a;
+
+		assertEquals( 0, stored( a.getStorageList() ) );
+		assertEquals( 0, stored( b.getStorageList() ) );
+
+		assertNull( a.injectItems( stone( 10 ), Actionable.MODULATE, SOURCE ) );
+		assertEquals( 10, stored( first.cell ) );
+		assertEquals( stored( a.getAvailableItems( new ItemList() ) ), stored( a.getStorageList() ) );
+		assertEquals( 10, stored( a.getStorageList() ) );
+		assertEquals( 10, stored( b.getStorageList() ) );
+
+		assertEquals( 4, a.extractItems( stone( 4 ), Actionable.MODULATE, SOURCE ).getStackSize() );
+		assertEquals( 6, stored( first.cell ) );
+		assertEquals( 6, stored( a.getStorageList() ) );
+		assertEquals( 6, stored( b.getStorageList() ) );
+	}
+
+	/**
+	 * A cell is inserted and removed again, the totals follow the rebuilt list instead of adding the posted contents.
+	 */
+	@Test
+	public void testFuzzyTotalsCellChange_shouldPass()
+	{
+		final LoopHandler handler = new LoopHandler();
+		final NetworkMonitor<IAEItemStack> monitor = monitor( handler );
+		final FuzzyTotals totals = new FuzzyTotals( monitor );
+		final long[] total = new long[1];
+
+		assertEquals( 0, totals.subscribe( new FuzzyTotals.Listener()
+		{
+			@Override
+			public boolean isValid( final Object verificationToken )
+			{
+				return true;
+			}
+
+			@Override
+			public void onTotalChange( final long value )
+			{
+				total[0] = value;
+			}
+		}, null, null, FuzzyMode.IGNORE_ALL ) );
+		totals.onTick();
+
+		final IItemList<IAEItemStack> cell = new ItemList();
+		cell.add( stone( 1000 ) );
+
+		handler.cell.add( stone( 1000 ) );
+		monitor.forceUpdate();
+		monitor.postCellChange( true, cell, SOURCE );
+		totals.onTick();
+		assertEquals( 1000, total[0] );
+
+		assertNull( monitor.injectItems( stone( 10 ), Actionable.MODULATE, SOURCE ) );
+		assertEquals( 1010, total[0] );
+
+		handler.cell.resetStatus();
+		cell.findPrecise( stone( 1 ) ).setStackSize( 1010 );
+		monitor.forceUpdate();
+		monitor.postCellChange( false, cell, SOURCE );
+		totals.onTick();
+		assertEquals( 0, total[0] );
+	}
+
+	/**
+	 * Stores into a storage bus first and into its own cell second, like a network with a higher priority bus.
+	 */
+	private static final class LoopHandler implements IMEInventoryHandler<IAEItemStack>
+	{
+
+		private final IItemList<IAEItemStack> cell = new ItemList();
+		private IMEMonitor<IAEItemStack> bus;
+		private boolean busy = false;
+
+		@Override
+		public IAEItemStack injectItems( final IAEItemStack input, final Actionable type, final BaseActionSource src )
+		{
+			if( this.bus != null && !this.busy )
+			{
+				this.busy = true;
+				final IAEItemStack leftover = this.bus.injectItems( input, type, src );
+				this.busy = false;
+				return leftover;
+			}
+
+			if( type == Actionable.MODULATE )
+			{
+				this.cell.add( input.copy() );
+			}
+
+			return null;
+		}
+
+		@Override
+		public IAEItemStack extractItems( final IAEItemStack request, final Actionable mode, final BaseActionSource src )
+		{
+			if( this.bus != null && !this.busy )
+			{
+				this.busy = true;
+				final IAEItemStack extracted = this.bus.extractItems( request, mode, src );
+				this.busy = false;
+				return extracted;
+			}
+
+			final IAEItemStack stored = this.cell.findPrecise( request );
+			if( stored == null )
+			{
+				return null;
+			}
+
+			final IAEItemStack extracted = request.copy();
+			extracted.setStackSize( Math.min( request.getStackSize(), stored.getStackSize() ) );
+
+			if( mode == Actionable.MODULATE )
+			{
+				stored.decStackSize( extracted.getStackSize() );
+			}
+
+			return extracted;
+		}
+
+		@Override
+		public IItemList<IAEItemStack> getAvailableItems( final IItemList<IAEItemStack> out )
+		{
+			if( this.busy )
+			{
+				return out;
+			}
+
+			for( final IAEItemStack is : this.cell )
+			{
+				out.add( is );
+			}
+
+			if( this.bus != null )
+			{
+				this.busy = true;
+				this.bus.getAvailableItems( out );
+				this.busy = false;
+			}
+
+			return out;
+		}
+
+		@Override
+		public StorageChannel getChannel()
+		{
+			return StorageChannel.ITEMS;
+		}
+
+		@Override
+		public AccessRestriction getAccess()
+		{
+			return AccessRestriction.READ_WRITE;
+		}
+
+		@Override
+		public boolean isPrioritized( final IAEItemStack input )
+		{
+			return false;
+		}
+
+		@Override
+		public boolean canAccept( final IAEItemStack input )
+		{
+			return true;
+		}
+
+		@Override
+		public int getPriority()
+		{
+			return 0;
+		}
+
+		@Override
+		public int getSlot()
+		{
+			return 0;
+		}
+
+		@Override
+		public boolean validForPass( final int i )
+		{
+			return true;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.cache.helpers;
+
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import appeng.api.networking.ticking.TickingRequest;
+
+
+/**
+ * Tests for {@link TickWheel}
+ */
+public final class TickWheelTest
+{
+
+	private static TickTracker tracker( final int rate, final long lastTick )
+	{
+		final TickTracker tt = new TickTracker( new TickingRequest( 0, 100000, false, false ), null, null, lastTick );
+		tt.setCurrentRate( rate );
+		return tt;
+	}
+
+	/**
+	 * @return the tick the tracker comes due in, polling at most the given number of ticks.
+	 */
+	private static long runUntilDue( final TickWheel wheel, final TickTracker expected, final long from, final long limit )
+	{
+		for( long tick = from; tick <= limit; tick++ )
+		{
+			wheel.advance( tick );
+
+			final TickTracker tt = wheel.poll();
+			if( tt != null )
+			{
+				assertSame( expected, tt );
+				assertNull( wheel.poll() );
+				return tick;
+			}
+		}
+
+		return -1;
+	}
+
+	@Test
+	public void testNearSchedule_shouldPass()
+	{
+		final TickWheel wheel = new TickWheel( 0 );
+		final TickTracker tt = tracker( 5, 0 );
+
+		wheel.schedule( tt );
+
+		assertEquals( 5, runUntilDue( wheel, tt, 1, 1000 ) );
+		assertFalse( wheel.isScheduled( tt ) );
+	}
+
+	@Test
+	public void testFarSchedule_shouldPass()
+	{
+		final TickWheel wheel = new TickWheel( 100 );
+		final TickTracker tt = tracker( 3000, 100 );
+
+		wheel.schedule( tt );
+
+		assertEquals( 3100, runUntilDue( wheel, tt, 101, 10000 ) );
+	}
+
+	@Test
+	public void testOverflowSchedule_shouldPass()
+	{
+		final TickWheel wheel = new TickWheel( 7 );
+		final TickTracker tt = tracker( 70000, 7 );
+
+		wheel.schedule( tt );
+
+		assertEquals( 70007, runUntilDue( wheel, tt, 8, 100000 ) );
+	}
+
+	@Test
+	public void testOverdueSchedule_shouldPass()
+	{
+		final TickWheel wheel = new TickWheel( 50 );
+		final TickTracker tt = tracker( 1, 10 );
+
+		wheel.schedule( tt );
+
+		assertEquals( 51, runUntilDue( wheel, tt, 51, 1000 ) );
+	}
+
+	@Test
+	public void testScheduleWhileDraining_shouldPass()
+	{
+		final TickWheel wheel = new TickWheel( 0 );
+		final TickTracker tt = tracker( 1, 0 );
+
+		wheel.schedule( tt );
+		wheel.advance( 1 );
+		assertSame( tt, wheel.poll() );
+
+		tt.setCurrentRate( 0 );
+		tt.setLastTick( 1 );
+		wheel.schedule( tt );
+
+		assertSame( tt, wheel.poll() );
+		assertNull( wheel.poll() );
+	}
+
+	@Test
+	public void testCancel_shouldPass()
+	{
+		final TickWheel wheel = new TickWheel( 0 );
+		final TickTracker a = tracker( 4, 0 );
+		final TickTracker b = tracker( 4, 0 );
+		final TickTracker c = tracker( 4, 0 );
+
+		wheel.schedule( a );
+		wheel.schedule( b );
+		wheel.schedule( c );
+		wheel.cancel( b );
+
+		assertTrue( wheel.isScheduled( a ) );
+		assertFalse( wheel.isScheduled( b ) );
+
+		for( long tick = 1; tick < 4; tick++ )
+		{
+			wheel.advance( tick );
+			assertNull( wheel.poll() );
+		}
+
+		wheel.advance( 4 );
+
+		final TickTracker first = wheel.poll();
+		final TickTracker second = wheel.poll();
+
+		assertNull( wheel.poll() );
+		assertTrue( ( first == a && second == c ) || ( first == c && second == a ) );
+	}
+
+	@Test
+	public void testReschedule_shouldPass()
+	{
+		final TickWheel wheel = new TickWheel( 0 );
+		final TickTracker tt = tracker( 600, 0 );
+
+		wheel.schedule( tt );
+		tt.setCurrentRate( 20 );
+		wheel.schedule( tt );
+
+		assertEquals( 20, runUntilDue( wheel, tt, 1, 1000 ) );
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.storage;
+
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagString;
+
+import appeng.util.item.AEItemStack;
+
+
+/**
+ * Tests for {@link CellColumns}
+ */
+public final class CellColumnsTest
+{
+
+	@BeforeClass
+	public static void setup()
+	{
+		Bootstrap.register();
+	}
+
+	private static ItemStack[] contents()
+	{
+		final ItemStack named = new ItemStack( Items.DIAMOND, 64 );
+		named.setStackDisplayName( "Shiny" );
+
+		return new ItemStack[] { new ItemStack( Blocks.STONE, 1000 ), new ItemStack( Blocks.WOOL, 12, 3 ), named, new ItemStack( Items.DIAMOND, 7 ) };
+	}
+
+	private static String slot( final int x )
+	{
+		return "#" + x;
+	}
+
+	private static void assertStack( final ItemStack expected, final ItemStack actual )
+	{
+		assertNotNull( actual );
+		assertTrue( expected + " != " + actual, ItemStack.areItemStacksEqual( expected, actual ) );
+	}
+
+	private static void writeColumns( final NBTTagCompound data, final ItemStack[] stacks )
+	{
+		final CellColumns columns = CellColumns.create( data, stacks.length );
+		for( int x = 0; x < stacks.length; x++ )
+		{
+			columns.setStack( x, slot( x ), AEItemStack.create( stacks[x] ) );
+		}
+		columns.write();
+	}
+
+	private static void assertColumns( final NBTTagCompound data, final ItemStack[] expected )
+	{
+		final CellColumns columns = CellColumns.read( data );
+		assertNotNull( columns );
+		assertEquals( expected.length, columns.size() );
+
+		for( int x = 0; x < expected.length; x++ )
+		{
+			assertStack( expected[x], columns.getStack( x, slot( x ) ) );
+		}
+	}
+
+	@Test
+	public void testColumnsRoundTrip_shouldPass()
+	{
+		final ItemStack[] stacks = contents();
+		final NBTTagCompound data = new NBTTagCompound();
+
+		writeColumns( data, stacks );
+
+		assertTrue( CellColumns.isPresent( data ) );
+		// items are stored by registry name, each one once.
+		assertEquals( 3, data.getTagList( "cn", 8 ).tagCount() );
+		assertEquals( "minecraft:stone", data.getTagList( "cn", 8 ).getStringTagAt( 0 ) );
+
+		assertColumns( (NBTTagCompound) data.copy(), stacks );
+	}
+
+	@Test
+	public void testColumnsSingleSlotUpdates_shouldPass()
+	{
+		final ItemStack[] stacks = contents();
+		final NBTTagCompound data = new NBTTagCompound();
+
+		writeColumns( data, stacks );
+
+		final CellColumns columns = CellColumns.read( data );
+		columns.setCount( 0, 5 );
+		columns.setStack( 2, slot( 2 ), AEItemStack.create( stacks[3] ) );
+		columns.removeLast( slot( 3 ) );
+		columns.setStack( 3, slot( 3 ), AEItemStack.create( new ItemStack( Items.NAME_TAG, 2 ) ) );
+		columns.write();
+
+		assertColumns( (NBTTagCompound) data.copy(), new ItemStack[] { new ItemStack( Blocks.STONE, 5 ), stacks[1], stacks[3], new ItemStack( Items.NAME_TAG, 2 ) } );
+	}
+
+	@Test
+	public void testUnknownItem_shouldPass()
+	{
+		final NBTTagCompound data = new NBTTagCompound();
+		writeColumns( data, new ItemStack[] { new ItemStack( Items.DIAMOND, 1 ) } );
+
+		final NBTTagList names = new NBTTagList();
+		names.appendTag( new NBTTagString( "missing:item" ) );
+		data.setTag( "cn", names );
+
+		final CellColumns columns = CellColumns.read( data );
+		assertNotNull( columns );
+		assertNull( columns.getStack( 0, slot( 0 ) ) );
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * This file is part of Applied Energistics 2.
+ * Copyright (c) 2013 - 2015, AlgorithmX2, All rights reserved.
+ *
+ * Applied Energistics 2 is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Applied Energistics 2 is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Applied Energistics 2.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+
+package appeng.me.storage;
+
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import appeng.api.config.Actionable;
+import appeng.api.config.FuzzyMode;
+import appeng.api.exceptions.AppEngException;
+import appeng.api.implementations.items.IStorageCell;
+import appeng.api.networking.security.BaseActionSource;
+import appeng.api.storage.data.IAEItemStack;
+import appeng.api.storage.data.IItemList;
+import appeng.util.item.AEItemStack;
+import appeng.util.item.ItemList;
+
+
+/**
+ * Tests for {@link CellInventory}
+ */
+public final class CellInventoryTest
+{
+
+	private static final BaseActionSource SOURCE = new BaseActionSource();
+
+	@BeforeClass
+	public static void setup()
+	{
+		Bootstrap.register();
+	}
+
+	private static ItemStack[] contents()
+	{
+		final ItemStack named = new ItemStack( Items.DIAMOND, 64 );
+		named.setStackDisplayName( "Shiny" );
+
+		return new ItemStack[] { new ItemStack( Blocks.STONE, 1000 ), new ItemStack( Blocks.WOOL, 12, 3 ), named, new ItemStack( Items.DIAMOND, 7 ) };
+	}
+
+	/**
+	 * Opens the cell the way a drive does, reading everything from its tag again.
+	 */
+	private static CellInventory open( final ItemStack cell, final boolean columnar ) throws AppEngException
+	{
+		return new CellInventory( cell, null, true, columnar )
+		{
+			@Override
+			IItemList<IAEItemStack> createItemList()
+			{
+				return new ItemList();
+			}
+		};
+	}
+
+	private static void assertContents( final CellInventory inv, final ItemStack... expected )
+	{
+		final IItemList<IAEItemStack> stored = inv.getAvailableItems( new ItemList() );
+		assertEquals( expected.length, stored.size() );
+
+		for( final ItemStack is : expected )
+		{
+			final IAEItemStack found = stored.findPrecise( AEItemStack.create( is ) );
+			assertNotNull( is.toString(), found );
+			assertEquals( is.toString(), is.stackSize, found.getStackSize() );
+		}
+	}
+
+	@Test
+	public void testToggleColumns_shouldPass() throws AppEngException
+	{
+		final ItemStack[] stacks = contents();
+		final ItemStack cell = new ItemStack( new TestCell() );
+
+		final CellInventory legacy = open( cell, false );
+		for( final ItemStack is : stacks )
+		{
+			assertNull( legacy.injectItems( AEItemStack.create( is ), Actionable.MODULATE, SOURCE ) );
+		}
+
+		final NBTTagCompound data = cell.getTagCompound();
+		assertTrue( data.hasKey( "#3" ) );
+		assertFalse( CellColumns.isPresent( data ) );
+
+		// enabling the option adds the columns on the next save and keeps the slots.
+		final CellInventory columnar = open( cell, true );
+		assertContents( columnar, stacks );
+		assertNull( columnar.injectItems( AEItemStack.create( new ItemStack( Blocks.STONE, 24 ) ), Actionable.MODULATE, SOURCE ) );
+
+		assertTrue( CellColumns.isPresent( data ) );
+		assertTrue( data.hasKey( "#3" ) );
+		assertEquals( 1024, data.getInteger( "@0" ) );
+
+		final ItemStack stone = new ItemStack( Blocks.STONE, 1024 );
+		assertContents( open( cell, true ), stone, stacks[1], stacks[2], stacks[3] );
+		assertContents( open( cell, false ), stone, stacks[1], stacks[2], stacks[3] );
+
+		// a version without the option changes only the slots, the stale columns must not be used.
+		CellColumns.writeSlot( data, "#1", "@1", AEItemStack.create( new ItemStack( Blocks.WOOL, 20, 3 ) ) );
+		final ItemStack wool = new ItemStack( Blocks.WOOL, 20, 3 );
+		assertContents( open( cell, true ), stone, wool, stacks[2], stacks[3] );
+
+		// disabling the option drops the columns on the next save.
+		final CellInventory disabled = open( cell, false );
+		assertEquals( 7, disabled.extractItems( AEItemStack.create( stacks[3] ), Actionable.MODULATE, SOURCE ).getStackSize() );
+
+		assertFalse( CellColumns.isPresent( data ) );
+		assertFalse( data.hasKey( "#3" ) );
+		assertContents( open( cell, false ), stone, wool, stacks[2] );
+		assertContents( open( cell, true ), stone, wool, stacks[2] );
+	}
+
+	private static final class TestCell extends Item implements IStorageCell
+	{
+
+		@Override
+		public int getBytes( final ItemStack cellItem )
+		{
+			return 4096;
+		}
+
+		@Override
+		public int getBytesPerType( final ItemStack cellItem )
+		{
+			return 8;
+		}
+
+		@Override
+		public int getTotalTypes( final ItemStack cellItem )
+		{
+			return 63;
+		}
+
+		@Override
+		public boolean isBlackListed( final ItemStack cellItem, final IAEItemStack requestedAddition )
+		{
+			return false;
+		}
+
+		@Override
+		public boolean storableInStorageCell()
+		{
+			return false;
+		}
+
+		@Override
+		public boolean isStorageCell( final ItemStack i )
+		{
+			return true;
+		}
+
+		@Override
+		public double getIdleDrain()
+		{
+			return 0;
+		}
+
+		@Override
+		public boolean isEditable( final ItemStack is )
+		{
+			return false;
+		}
+
+		@Override
+		public IInventory getUpgradesInventory( final ItemStack is )
+		{
+			return null;
+		}
+
+		@Override
+		public IInventory getConfigInventory( final ItemStack is )
+		{
+			return null;
+		}
+
+		@Override
+		public FuzzyMode getFuzzyMode( final ItemStack is )
+		{
+			return FuzzyMode.IGNORE_ALL;
+		}
+
+		@Override
+		public void setFuzzyMode( final ItemStack is, final FuzzyMode fzMode )
+		{
+		}
+	}
+}